@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Detached entities shaped like one page of a list endpoint.
+ */
+final class BenchmarkData {
+    static final int COMMENTS_PER_ITEM = 3;
+    static final int ITEMS_PER_REQUEST = 2;
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        return new User(id, "User " + id, "user" + id + "@mail.ru");
+    }
+
+    static Item item(long id) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("Cordless drill number " + id + " with two batteries and a case")
+                .available(true)
+                .owner(user(id % 50 + 1))
+                .requestId(id % 2 == 0 ? id / 2 : null)
+                .build();
+    }
+
+    static Booking booking(long id, Item item) {
+        return Booking.builder()
+                .id(id)
+                .start(DATE.plusDays(id))
+                .end(DATE.plusDays(id + 1))
+                .item(item)
+                .booker(user(id % 100 + 51))
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    static Comment comment(long id, Item item) {
+        return Comment.builder()
+                .id(id)
+                .text("Works fine, returned on time, would rent again " + id)
+                .item(item)
+                .user(user(id % 100 + 51))
+                .created(DATE.plusHours(id))
+                .build();
+    }
+
+    static ItemRequest request(long id) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Need a drill for a weekend " + id)
+                .requester(user(id % 100 + 51))
+                .created(DATE.minusDays(id))
+                .build();
+    }
+
+    static List<Item> items(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(BenchmarkData::item)
+                .collect(Collectors.toList());
+    }
+
+    static List<Booking> bookings(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> booking(id, item(id)))
+                .collect(Collectors.toList());
+    }
+
+    static List<Comment> comments(Item item) {
+        return LongStream.rangeClosed(1, COMMENTS_PER_ITEM)
+                .mapToObj(i -> comment(item.getId() * COMMENTS_PER_ITEM + i, item))
+                .collect(Collectors.toList());
+    }
+
+    static List<ItemRequest> requests(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(BenchmarkData::request)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.mapper.ItemMapperWithBooking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writing a page of DTOs to JSON with an ObjectMapper set up the way Spring Boot sets up the server's one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int rows;
+
+    private ObjectWriter writer;
+    private List<BookingDto> bookingDtos;
+    private List<ItemDtoWithBooking> itemDtos;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        List<Booking> bookings = BenchmarkData.bookings(rows);
+        bookingDtos = bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        itemDtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Item item = bookings.get(i).getItem();
+            itemDtos.add(ItemMapperWithBooking.toItemDtoWithBooking(BenchmarkData.comments(item), bookings.get(i),
+                    bookings.get(rows - 1 - i), item));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeBookingDtos() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookingDtos);
+    }
+
+    @Benchmark
+    public byte[] writeItemDtosWithBooking() throws JsonProcessingException {
+        return writer.writeValueAsBytes(itemDtos);
+    }
+}
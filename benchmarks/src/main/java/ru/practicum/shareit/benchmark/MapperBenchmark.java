@@ -0,0 +1,109 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comments.CommentDto;
+import ru.practicum.shareit.comments.mapper.CommentMapper;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperWithBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO conversion of one page of rows, the way the services map list results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int rows;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<List<Comment>> itemComments;
+    private List<Comment> comments;
+    private List<ItemRequest> requests;
+
+    @Setup
+    public void setUp() {
+        bookings = BenchmarkData.bookings(rows);
+        items = BenchmarkData.items(rows);
+        itemComments = items.stream()
+                .map(BenchmarkData::comments)
+                .collect(Collectors.toList());
+        comments = itemComments.stream()
+                .flatMap(List::stream)
+                .limit(rows)
+                .collect(Collectors.toList());
+        requests = BenchmarkData.requests(rows);
+    }
+
+    @Benchmark
+    public List<BookingDto> toBookingDto() {
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDto() {
+        return ItemMapper.toItemDto(items);
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBooking> toItemDtoWithBooking() {
+        List<ItemDtoWithBooking> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Item item = items.get(i);
+            result.add(ItemMapperWithBooking.toItemDtoWithBooking(itemComments.get(i), bookings.get(i),
+                    bookings.get(rows - 1 - i), item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<CommentDto> toCommentDto() {
+        return comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> toItemRequestDto() {
+        List<ItemRequestDto> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<ItemDto> requestItems = new ArrayList<>(BenchmarkData.ITEMS_PER_REQUEST);
+            for (int j = 0; j < BenchmarkData.ITEMS_PER_REQUEST; j++) {
+                requestItems.add(ItemMapper.toItemDto(items.get((i + j) % rows)));
+            }
+            result.add(ItemRequestMapper.toItemRequestDto(requests.get(i), requestItems));
+        }
+        return result;
+    }
+}
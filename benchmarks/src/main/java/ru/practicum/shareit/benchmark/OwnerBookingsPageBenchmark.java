@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of {@code /bookings/owner} past the first one, read as a Slice (size + 1 rows) and as a Page
+ * (the rows and a count over the same join). Runs on the server's repositories over an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerBookingsPageBenchmark {
+    private static final long OWNER_ID = 1L;
+    private static final long OTHER_OWNER_ID = 2L;
+    private static final long BOOKER_ID = 3L;
+    private static final int ITEMS_PER_OWNER = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    /**
+     * Bookings of the owner's items; the other owner has as many.
+     */
+    @Param({"1000", "100000"})
+    private int bookings;
+
+    @Param({"1", "10"})
+    private int pageNumber;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private PagedBookingRepository pagedBookingRepository;
+    private Pageable page;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=benchmark",
+                        "--spring.datasource.password=benchmark",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--shareit.search.engine=jpa",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        bookingRepository = context.getBean(BookingRepository.class);
+        pagedBookingRepository = context.getBean(PagedBookingRepository.class);
+        page = PageRequest.of(pageNumber, PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Booking> slice() {
+        return bookingRepository.getAllBookingsForOwnersItems(OWNER_ID, page);
+    }
+
+    @Benchmark
+    public Slice<Booking> page() {
+        return pagedBookingRepository.getAllBookingsForOwnersItems(OWNER_ID, page);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = OWNER_ID; id <= BOOKER_ID; id++) {
+            users.add(new Object[]{id, "User " + id, "user" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= 2 * ITEMS_PER_OWNER; id++) {
+            items.add(new Object[]{id, "Item " + id, "Cordless drill " + id,
+                    id <= ITEMS_PER_OWNER ? OWNER_ID : OTHER_OWNER_ID});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id)" +
+                " values (?, ?, ?, true, ?)", items);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 2L * bookings; id++) {
+            rows.add(new Object[]{id, Timestamp.valueOf(DATE.plusHours(id)), Timestamp.valueOf(DATE.plusHours(id + 1)),
+                    id % (2 * ITEMS_PER_OWNER) + 1, BOOKER_ID});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (id, start_date, end_date, item_id, booker_id, status)" +
+                " values (?, ?, ?, ?, ?, 'APPROVED')", rows);
+    }
+}
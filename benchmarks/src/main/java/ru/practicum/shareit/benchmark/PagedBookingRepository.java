@@ -0,0 +1,22 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * The owner's bookings query of {@link ru.practicum.shareit.booking.repository.BookingRepository}
+ * returning {@link Page}, as it did before it returned a Slice; Spring Data adds the count query.
+ */
+interface PagedBookingRepository extends Repository<Booking, Long> {
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = ?1)" +
+            " order by b.start desc")
+    Page<Booking> getAllBookingsForOwnersItems(Long userId, Pageable page);
+}
@@ -1,15 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,56 +18,78 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory clientFactory, GatewayResponseCache responseCache) {
+        super(clientFactory, API_PREFIX, responseCache, null);
+    }
+
+    public Mono<ResponseEntity<Object>> createBooking(BookingRequestDto bookingDto, Long userId) {
+        return invalidateOnSuccess(post("", userId, bookingDto),
+                cache -> cache.invalidate(GatewayResponseCache.ITEMS, bookingDto.getItemId()));
     }
 
-    public ResponseEntity createBooking(BookingRequestDto bookingDto, Long userId) {
-        return post("", userId, bookingDto);
+    public Mono<ResponseEntity<Object>> createBookings(List<BookingRequestDto> bookingDtos, Long userId) {
+        return invalidateOnSuccess(post("/batch", userId, bookingDtos),
+                cache -> bookingDtos.forEach(bookingDto ->
+                        cache.invalidate(GatewayResponseCache.ITEMS, bookingDto.getItemId())));
     }
 
-    public ResponseEntity getBookingById(Long userId,
-                                         Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId,
+                                                       Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity approveBooking(Long bookingId,
-                                         Long userId,
-                                         Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(Long bookingId,
+                                                       Long userId,
+                                                       Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        // The item of the booking is not known here, so every item may have a new last or next booking.
+        return invalidateOnSuccess(patch("/" + bookingId + "?approved={approved}", userId, parameters, null),
+                cache -> cache.invalidateAll(GatewayResponseCache.ITEMS));
     }
 
-    public ResponseEntity getAllBookingByUserId(String path,
-                                                Long userId,
-                                                String state,
-                                                Integer from,
-                                                Integer size) {
+    public Mono<ResponseEntity<Object>> approveBookings(List<Long> bookingIds,
+                                                        Long userId,
+                                                        Boolean approved) {
         Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
+                "approved", approved
         );
-        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        return invalidateOnSuccess(patch("/approve?approved={approved}", userId, parameters, bookingIds),
+                cache -> cache.invalidateAll(GatewayResponseCache.ITEMS));
     }
 
-    public ResponseEntity getAllBookingByOwnerId(String path,
-                                                 Long userId,
-                                                 String state,
-                                                 Integer from,
-                                                 Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingByUserId(String path,
+                                                              Long userId,
+                                                              String state,
+                                                              Integer from,
+                                                              Integer size,
+                                                              String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get(path + "?state={state}&from={from}&size={size}&after={after}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingByOwnerId(String path,
+                                                               Long userId,
+                                                               String state,
+                                                               Integer from,
+                                                               Integer size,
+                                                               String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get(path + "?state={state}&from={from}&size={size}&after={after}", userId, parameters);
     }
 }
\ No newline at end of file
@@ -14,11 +14,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.exception.ObjectValidationException;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -27,11 +30,14 @@ import javax.validation.Valid;
 @Validated
 public class BookingController {
 
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_APPROVAL_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @Valid @RequestBody BookingRequestDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @Valid @RequestBody BookingRequestDto bookingDto) {
         log.info("Creating booking {}", bookingDto);
         if (bookingDto.getEnd().isBefore(bookingDto.getStart()) || bookingDto.getEnd().isEqual(bookingDto.getStart())) {
             throw new ObjectValidationException("Incorrect booking dates.");
@@ -39,38 +45,66 @@ public class BookingController {
         return bookingClient.createBooking(bookingDto, userId);
     }
 
+    /**
+     * The elements are not validated here: the server reports the outcome of every element separately.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookingRequestDto> bookingDtos) {
+        log.info("Creating {} bookings", bookingDtos.size());
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ObjectValidationException("A batch must contain from 1 to " + MAX_BATCH_SIZE + " bookings.");
+        }
+        return bookingClient.createBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long bookingId,
-                                         @RequestParam(value = "approved") Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long bookingId,
+                                                       @RequestParam(value = "approved") Boolean approved) {
         log.info("Update booking {}", bookingId);
         return bookingClient.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/approve")
+    public Mono<ResponseEntity<Object>> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(value = "approved") Boolean approved,
+                                                        @RequestBody List<Long> bookingIds) {
+        log.info("Update {} bookings", bookingIds.size());
+        if (bookingIds.isEmpty() || bookingIds.size() > MAX_APPROVAL_SIZE
+                || bookingIds.stream().anyMatch(Objects::isNull)) {
+            throw new ObjectValidationException("Booking ids must contain from 1 to " + MAX_APPROVAL_SIZE +
+                    " ids.");
+        }
+        return bookingClient.approveBookings(bookingIds, userId, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                  @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable Long bookingId) {
         log.info("Get booking {}", bookingId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity getAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @RequestParam(value = "state", required = false,
-                                               defaultValue = "ALL") String state,
-                                       @RequestParam(defaultValue = "0") Integer from,
-                                       @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam(value = "state", required = false,
+                                                             defaultValue = "ALL") String state,
+                                                     @RequestParam(defaultValue = "0") Integer from,
+                                                     @RequestParam(defaultValue = "10") Integer size,
+                                                     @RequestParam(required = false) String after) {
         log.info("Get all bookings by user={}", userId);
-        return bookingClient.getAllBookingByUserId("", userId, state, from, size);
+        return bookingClient.getAllBookingByUserId("", userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(value = "state", required = false,
-                                                defaultValue = "ALL") String state,
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam(value = "state", required = false,
+                                                              defaultValue = "ALL") String state,
+                                                      @RequestParam(defaultValue = "0") Integer from,
+                                                      @RequestParam(defaultValue = "10") Integer size,
+                                                      @RequestParam(required = false) String after) {
         log.info("Get all bookings by owner={}", userId);
-        return bookingClient.getAllBookingByOwnerId("/owner", userId, state, from, size);
+        return bookingClient.getAllBookingByOwnerId("/owner", userId, state, from, size, after);
     }
 }
\ No newline at end of file
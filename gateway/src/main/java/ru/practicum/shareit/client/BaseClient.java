@@ -2,7 +2,10 @@ package ru.practicum.shareit.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,88 +14,185 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 public class BaseClient {
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
     protected final RestTemplate rest;
+    private final Scheduler scheduler;
+    private final WebClient webClient;
+    private final UpstreamMetrics upstreamMetrics;
+    private final GatewayResponseCache responseCache;
+    private final String cacheRegion;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null);
+    }
+
+    /**
+     * Client for {@code apiPrefix} of the server with upstream metrics.
+     *
+     * @see #BaseClient(RestTemplate, WebClient, GatewayResponseCache, String)
+     */
+    public BaseClient(ServerClientFactory clientFactory, String apiPrefix, @Nullable GatewayResponseCache responseCache,
+                      @Nullable String cacheRegion) {
+        this(clientFactory.restTemplate(apiPrefix), clientFactory.scheduler(), clientFactory.webClient(apiPrefix),
+                clientFactory.upstreamMetrics(apiPrefix), responseCache, cacheRegion);
+    }
+
+    /**
+     * @param webClient   when set, requests are sent with it instead of with RestTemplate on the subscribing thread
+     * @param cacheRegion region used by {@link #cachedGet}
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable GatewayResponseCache responseCache,
+                      @Nullable String cacheRegion) {
+        this(rest, Schedulers.immediate(), webClient, null, responseCache, cacheRegion);
+    }
+
+    private BaseClient(RestTemplate rest, Scheduler scheduler, @Nullable WebClient webClient,
+                       @Nullable UpstreamMetrics upstreamMetrics, @Nullable GatewayResponseCache responseCache,
+                       @Nullable String cacheRegion) {
         this.rest = rest;
+        this.scheduler = scheduler;
+        this.webClient = webClient;
+        this.upstreamMetrics = upstreamMetrics;
+        this.responseCache = responseCache;
+        this.cacheRegion = cacheRegion;
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path) {
+        return cachedGet(path, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, @Nullable Long userId) {
+        if (responseCache == null || cacheRegion == null) {
+            return get(path, userId, null);
+        }
+        return responseCache.get(cacheRegion, GatewayResponseCache.key(path, userId),
+                () -> get(path, userId, null));
+    }
+
+    /**
+     * Applies the invalidation to the response cache once the write succeeded on the server.
+     */
+    protected Mono<ResponseEntity<Object>> invalidateOnSuccess(Mono<ResponseEntity<Object>> write,
+                                                               Consumer<GatewayResponseCache> invalidation) {
+        if (responseCache == null) {
+            return write;
+        }
+        return write.doOnNext(serverResponse -> {
+            if (serverResponse.getStatusCode().is2xxSuccessful()) {
+                invalidation.accept(responseCache);
+            }
+        });
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = webClient == null
+                ? Mono.fromCallable(() -> exchange(method, path, userId, parameters, body))
+                        .subscribeOn(scheduler)
+                : exchangeWithoutBlocking(method, path, userId, parameters, body);
+        if (upstreamMetrics != null) {
+            response = upstreamMetrics.time(method, path, response);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            shareitServerResponse = ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return relayResponse(shareitServerResponse, shareitServerResponse.getBody());
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchangeWithoutBlocking(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.retrieve()
+                .onRawStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(response -> response.getHeaders().getContentLength() == 0
+                        ? response.getBody().doOnNext(DataBufferUtils::release)
+                                .then(Mono.fromCallable(() -> relayResponse(response, null)))
+                        : Mono.just(relayResponse(response, new StreamedBody(response.getBody()))));
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +205,19 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    /**
+     * Relays the server's status, headers and raw body, either as bytes or as a {@link StreamedBody};
+     * the body is never parsed.
+     */
+    private static ResponseEntity<Object> relayResponse(ResponseEntity<?> response, @Nullable Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(headers)
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of successful server responses to GET requests, one bounded region per resource. It is off
+ * unless {@code shareit-gateway.cache.enabled} is set, since a cached response may be up to the TTL old.
+ * Keys start with the resource path, {@code /{id}|}, so a write drops only the entries of the resource it
+ * changed. Every invalidation moves the generation of its region on; a response loaded while that happened is
+ * not stored, so a GET that raced with a write cannot put the old state back. Streamed bodies are read into
+ * memory before they are stored.
+ */
+@Component
+public class GatewayResponseCache {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+    private static final String KEY_SEPARATOR = "|";
+
+    private final boolean enabled;
+    private final long maxSize;
+    private final Duration ttl;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    public GatewayResponseCache(@Value("${shareit-gateway.cache.enabled:false}") boolean enabled,
+                                @Value("${shareit-gateway.cache.max-size:10000}") long maxSize,
+                                @Value("${shareit-gateway.cache.ttl:30s}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static String key(String path, Long userId) {
+        return path + KEY_SEPARATOR + userId;
+    }
+
+    public Mono<ResponseEntity<Object>> get(String regionName, String key,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Region region = region(regionName);
+        return Mono.defer(() -> {
+            ResponseEntity<Object> response = region.cache.getIfPresent(key);
+            if (response != null) {
+                return Mono.just(response);
+            }
+            long generation = region.generation.get();
+            return loader.get().flatMap(StreamedBody::buffered).doOnNext(serverResponse -> {
+                if (serverResponse.getStatusCode().is2xxSuccessful()) {
+                    region.cache.asMap().compute(key, (k, cached) ->
+                            region.generation.get() == generation ? serverResponse : cached);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops the responses cached for the resource with the id, whichever user asked for them.
+     */
+    public void invalidate(String regionName, Object id) {
+        Region region = regions.get(regionName);
+        if (region == null) {
+            return;
+        }
+        String prefix = "/" + id + KEY_SEPARATOR;
+        region.generation.incrementAndGet();
+        region.cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Drops whole regions, for writes whose effect on a region cannot be narrowed down to some resources.
+     */
+    public void invalidateAll(String... regionNames) {
+        for (String regionName : regionNames) {
+            Region region = regions.get(regionName);
+            if (region != null) {
+                region.generation.incrementAndGet();
+                region.cache.invalidateAll();
+            }
+        }
+    }
+
+    private Region region(String region) {
+        return regions.computeIfAbsent(region, name -> new Region(CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .<String, ResponseEntity<Object>>build(),
+                "gateway." + name)));
+    }
+
+    private static class Region {
+        private final Cache<String, ResponseEntity<Object>> cache;
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(Cache<String, ResponseEntity<Object>> cache) {
+            this.cache = cache;
+        }
+    }
+}
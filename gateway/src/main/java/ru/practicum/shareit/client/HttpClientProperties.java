@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings shared by all clients of the ShareIt server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.http-client")
+public class HttpClientProperties {
+    /**
+     * {@code blocking} sends requests with RestTemplate on a worker thread, one per pooled connection,
+     * {@code non-blocking} with WebClient on the Netty event loop, relaying the body while it arrives.
+     * The servlet thread is released in both modes.
+     */
+    private Mode mode = Mode.BLOCKING;
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    public enum Mode {
+        BLOCKING,
+        NON_BLOCKING
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Builds the RestTemplate and its scheduler, the upstream metrics and, in non-blocking mode, the WebClient
+ * a {@link BaseClient} uses for one API prefix.
+ */
+@Component
+public class ServerClientFactory {
+    private final String serverUrl;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final WebClient.Builder webClientBuilder;
+    private final ReactorClientHttpConnector connector;
+    private final Scheduler scheduler;
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ServerClientFactory(@Value("${shareit-server.url}") String serverUrl,
+                               RestTemplateBuilder restTemplateBuilder,
+                               HttpComponentsClientHttpRequestFactory requestFactory,
+                               WebClient.Builder webClientBuilder,
+                               ReactorClientHttpConnector connector,
+                               Scheduler scheduler,
+                               HttpClientProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.serverUrl = serverUrl;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.requestFactory = requestFactory;
+        this.webClientBuilder = webClientBuilder;
+        this.connector = connector;
+        this.scheduler = scheduler;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RestTemplate restTemplate(String apiPrefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Nullable
+    public WebClient webClient(String apiPrefix) {
+        if (properties.getMode() != HttpClientProperties.Mode.NON_BLOCKING) {
+            return null;
+        }
+        return webClientBuilder.clone()
+                .clientConnector(connector)
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .build();
+    }
+
+    /**
+     * Scheduler that RestTemplate calls run on in {@link HttpClientProperties.Mode#BLOCKING} mode.
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    public UpstreamMetrics upstreamMetrics(String apiPrefix) {
+        return new UpstreamMetrics(meterRegistry, apiPrefix);
+    }
+}
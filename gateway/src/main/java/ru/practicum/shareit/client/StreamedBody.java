@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Body of a server response that is relayed while it arrives, in {@link HttpClientProperties.Mode#NON_BLOCKING}
+ * mode. It can be read once; {@link StreamedBodyHttpMessageConverter} writes it to the client.
+ */
+public class StreamedBody {
+    private final Flux<DataBuffer> content;
+
+    public StreamedBody(Flux<DataBuffer> content) {
+        this.content = content;
+    }
+
+    public Flux<DataBuffer> getContent() {
+        return content;
+    }
+
+    /**
+     * Reads the whole body into memory, for responses that are kept after they were sent.
+     */
+    public Mono<byte[]> toBytes() {
+        return DataBufferUtils.join(content)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0]);
+    }
+
+    /**
+     * @return the response with a streamed body replaced by its bytes, any other response unchanged
+     */
+    static Mono<ResponseEntity<Object>> buffered(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof StreamedBody)) {
+            return Mono.just(response);
+        }
+        return ((StreamedBody) response.getBody()).toBytes()
+                .map(bytes -> ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(response.getHeaders())
+                        .body(bytes));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Copies a {@link StreamedBody} to the client buffer by buffer on the servlet thread that writes the response,
+ * so only the few buffers Reactor prefetches are held in memory, whatever the size of the body. If the client
+ * goes away, closing the stream cancels the rest of the server response and the prefetched buffers are released.
+ */
+@Component
+public class StreamedBodyHttpMessageConverter extends AbstractHttpMessageConverter<StreamedBody> {
+    private static final int PREFETCH = 16;
+
+    public StreamedBodyHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StreamedBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StreamedBody readInternal(Class<? extends StreamedBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Streamed bodies are written only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(StreamedBody body, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        Queue<DataBuffer> unwritten = new ConcurrentLinkedQueue<>();
+        try (Stream<DataBuffer> buffers = body.getContent().doOnNext(unwritten::add).toStream(PREFETCH)) {
+            Iterator<DataBuffer> iterator = buffers.iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                try (InputStream in = unwritten.poll().asInputStream(true)) {
+                    in.transferTo(out);
+                }
+            }
+        } finally {
+            unwritten.forEach(DataBufferUtils::release);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.metrics.ServerTiming;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Times the calls a {@link BaseClient} makes to the server as {@code shareit.gateway.upstream}, tagged with
+ * the route, method, status code and outcome, and keeps a {@code shareit.gateway.upstream.in.flight} gauge per
+ * route. Ids in paths are replaced with {@code {id}} to keep the number of routes bounded. A call is timed until
+ * the response headers arrive; a {@link StreamedBody} is relayed to the client after that.
+ */
+public class UpstreamMetrics {
+    static final String TIMER = "shareit.gateway.upstream";
+    static final String IN_FLIGHT = "shareit.gateway.upstream.in.flight";
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry meterRegistry;
+    private final String apiPrefix;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public UpstreamMetrics(MeterRegistry meterRegistry, String apiPrefix) {
+        this.meterRegistry = meterRegistry;
+        this.apiPrefix = apiPrefix;
+    }
+
+    /**
+     * Must be called on the request thread, where the current {@link ServerTiming} is bound.
+     */
+    Mono<ResponseEntity<Object>> time(HttpMethod method, String path, Mono<ResponseEntity<Object>> exchange) {
+        String route = route(path);
+        ServerTiming serverTiming = ServerTiming.current();
+        return Mono.defer(() -> {
+            AtomicInteger routeInFlight = inFlight(route);
+            routeInFlight.incrementAndGet();
+            long start = System.nanoTime();
+            return exchange
+                    .doOnSuccess(response -> record(method, route, response, null, start, serverTiming))
+                    .doOnError(e -> record(method, route, null, e, start, serverTiming))
+                    .doFinally(signal -> routeInFlight.decrementAndGet());
+        });
+    }
+
+    String route(String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query < 0 ? path : path.substring(0, query);
+        String route = ID_SEGMENT.matcher(apiPrefix + withoutQuery).replaceAll("/{id}");
+        return route.isEmpty() ? "/" : route;
+    }
+
+    private void record(HttpMethod method, String route, ResponseEntity<Object> response, Throwable error,
+                        long start, ServerTiming serverTiming) {
+        long elapsed = System.nanoTime() - start;
+        String status = response == null ? "IO_ERROR" : String.valueOf(response.getStatusCodeValue());
+        String outcome = response == null ? "UNKNOWN" : outcome(response.getStatusCode());
+        Timer.builder(TIMER)
+                .tags(Tags.of("route", route, "method", method.name(), "status", status, "outcome", outcome,
+                        "exception", error == null ? "none" : error.getClass().getSimpleName()))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (serverTiming != null) {
+            serverTiming.addUpstream(elapsed);
+        }
+    }
+
+    private AtomicInteger inFlight(String route) {
+        return inFlight.computeIfAbsent(route,
+                key -> meterRegistry.gauge(IN_FLIGHT, Tags.of("route", key), new AtomicInteger()));
+    }
+
+    private static String outcome(HttpStatus status) {
+        HttpStatus.Series series = status.series();
+        switch (series) {
+            case SUCCESSFUL:
+                return "SUCCESS";
+            case CLIENT_ERROR:
+                return "CLIENT_ERROR";
+            case SERVER_ERROR:
+                return "SERVER_ERROR";
+            default:
+                return series.name();
+        }
+    }
+}
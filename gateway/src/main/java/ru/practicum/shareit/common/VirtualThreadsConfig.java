@@ -0,0 +1,62 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every Tomcat request and, in blocking client mode, every RestTemplate call to the server on its own
+ * virtual thread, so neither {@code server.tomcat.threads.max} nor a worker pool caps the number of requests
+ * waiting on the server; the HTTP connection pool does. Needs Java 21 or newer; on older runtimes the profile
+ * only logs a warning and platform threads are kept.
+ *
+ * @see ru.practicum.shareit.client.HttpClientConfig#shareItServerScheduler
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    /**
+     * @return a virtual-thread-per-task executor, closed on shutdown once the running tasks are done,
+     * or null below Java 21
+     */
+    @Bean(destroyMethod = "close")
+    @Nullable
+    public ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            log.warn("Virtual threads are not available on Java {}, keeping platform threads",
+                    Runtime.version().feature());
+        }
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+            @Qualifier("virtualThreadExecutor") @Nullable ExecutorService virtualThreadExecutor) {
+        if (virtualThreadExecutor == null) {
+            return protocolHandler -> { };
+        }
+        log.info("Tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+}
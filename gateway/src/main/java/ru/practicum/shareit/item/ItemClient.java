@@ -1,16 +1,17 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,43 +19,61 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemClient(ServerClientFactory clientFactory, GatewayResponseCache responseCache) {
+        super(clientFactory, API_PREFIX, responseCache, GatewayResponseCache.ITEMS);
     }
 
-    public ResponseEntity createItem(ItemShortDto itemDto, long userId) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> createItem(ItemShortDto itemDto, long userId) {
+        return invalidateOnSuccess(post("", userId, itemDto), cache -> {
+            if (itemDto.getRequestId() != null) {
+                cache.invalidate(GatewayResponseCache.REQUESTS, itemDto.getRequestId());
+            }
+        });
     }
 
-    public ResponseEntity updateItem(long userId, long itemId, ItemShortDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemShortDto itemDto) {
+        return invalidateOnSuccess(patch("/" + itemId, userId, itemDto), cache -> {
+            cache.invalidate(GatewayResponseCache.ITEMS, itemId);
+            // The request the item answers is not known here.
+            cache.invalidateAll(GatewayResponseCache.REQUESTS);
+        });
     }
 
-    public ResponseEntity getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId) {
+        return cachedGet("/" + itemId, userId);
     }
 
-    public ResponseEntity getItemsByUser(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByUser(long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get("?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get("?from={from}&size={size}&after={after}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> searchItemByQuery(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
+                "text", text,
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity searchItemByQuery(long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemAvailability(long userId, long itemId, LocalDateTime from,
+                                                            LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
-                "text", text,
                 "from", from,
-                "size", size
+                "to", to
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return invalidateOnSuccess(post("/" + itemId + "/comment", userId, commentDto),
+                cache -> cache.invalidate(GatewayResponseCache.ITEMS, itemId));
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,13 +14,16 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.common.Update;
+import ru.practicum.shareit.exception.ObjectValidationException;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -31,48 +35,65 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                 @RequestBody @Validated({Create.class}) ItemShortDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @Validated({Create.class}) ItemShortDto itemDto) {
         log.info("Creating item {}", itemDto);
         return itemClient.createItem(itemDto, userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity update(@PathVariable long itemId,
-                                 @RequestHeader("X-Sharer-User-Id") long userId,
-                                 @RequestBody @Validated({Update.class}) ItemShortDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @Validated({Update.class}) ItemShortDto itemDto) {
         log.info("Updating item {}", itemDto);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping(value = "/{itemId}")
-    public ResponseEntity getById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                  @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @PathVariable long itemId) {
         log.info("Get item id={}", itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(defaultValue = "0") Integer from,
-                                         @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(defaultValue = "0") Integer from,
+                                                       @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(required = false) String after) {
         log.info("Get all items user={}", userId);
-        return itemClient.getItemsByUser(userId, from, size);
+        return itemClient.getItemsByUser(userId, from, size, after);
     }
 
     @GetMapping("/search")
-    public ResponseEntity searchItemByQuery(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam String text,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> searchItemByQuery(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam String text,
+                                                          @RequestParam(defaultValue = "0") Integer from,
+                                                          @RequestParam(defaultValue = "10") Integer size) {
         log.info("Search item text={}", text);
         return itemClient.searchItemByQuery(userId, text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Get availability of item {} from {} to {} by user {}", itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new ObjectValidationException("Incorrect availability period.");
+        }
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity addComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @PathVariable("itemId") long itemId,
-                                     @RequestBody @Valid CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable("itemId") long itemId,
+                                                   @RequestBody @Valid CommentDto commentDto) {
         log.info("Add comment for item {} by user {}", itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the {@link ServerTiming} of every request and keeps count of the requests in flight,
+ * including the ones waiting for an asynchronous result.
+ */
+public class GatewayRequestFilter extends OncePerRequestFilter {
+    private final AtomicInteger inFlight;
+
+    public GatewayRequestFilter(AtomicInteger inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(ServerTiming.ATTRIBUTE, new ServerTiming());
+        inFlight.incrementAndGet();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new InFlightListener());
+            } else {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private class InFlightListener implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<GatewayRequestFilter> gatewayRequestFilter(MeterRegistry meterRegistry) {
+        AtomicInteger inFlight = meterRegistry.gauge("shareit.gateway.requests.in.flight", new AtomicInteger());
+        return new FilterRegistrationBean<>(new GatewayRequestFilter(inFlight));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time one gateway request has spent in total and waiting for the server, reported in the
+ * {@code Server-Timing} response header.
+ */
+public class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+
+    static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong upstreamNanos = new AtomicLong();
+    private final AtomicLong upstreamCalls = new AtomicLong();
+
+    /**
+     * @return timing of the request bound to the current thread, or null outside a gateway request
+     */
+    @Nullable
+    public static ServerTiming current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? null
+                : (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public void addUpstream(long nanos) {
+        upstreamNanos.addAndGet(nanos);
+        upstreamCalls.incrementAndGet();
+    }
+
+    /**
+     * Splits the time elapsed so far into the gateway's own part and the upstream part, if there was one.
+     */
+    String toHeaderValue() {
+        long total = System.nanoTime() - startNanos;
+        if (upstreamCalls.get() == 0) {
+            return "gateway;dur=" + millis(total);
+        }
+        long upstream = upstreamNanos.get();
+        return "gateway;dur=" + millis(Math.max(0, total - upstream)) + ", upstream;dur=" + millis(upstream);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -1,15 +1,15 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,30 +18,30 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemRequestClient(ServerClientFactory clientFactory, GatewayResponseCache responseCache) {
+        super(clientFactory, API_PREFIX, responseCache, GatewayResponseCache.REQUESTS);
     }
 
-    public ResponseEntity createRequest(ItemRequestShortDto itemRequestDto, long userId) {
+    public Mono<ResponseEntity<Object>> createRequest(ItemRequestShortDto itemRequestDto, long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity getRequestsByOwner(long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByOwner(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity getAllRequests(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get("/all?from={from}&size={size}&after={after}", userId, parameters);
     }
 
-    public ResponseEntity getRequestById(long userId, long itemRequestId) {
-        return get("/" + itemRequestId, userId);
+    public Mono<ResponseEntity<Object>> getRequestById(long userId, long itemRequestId) {
+        return cachedGet("/" + itemRequestId, userId);
     }
 }
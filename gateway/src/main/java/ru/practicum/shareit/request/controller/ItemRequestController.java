@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
@@ -27,29 +28,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity save(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @Validated @RequestBody ItemRequestShortDto requestDto) {
+    public Mono<ResponseEntity<Object>> save(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @Validated @RequestBody ItemRequestShortDto requestDto) {
         log.info("Creating request {} from user {}", requestDto, userId);
         return itemRequestClient.createRequest(requestDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity getRequestsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get requests by user {}", userId);
         return itemRequestClient.getRequestsByOwner(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "0") @Min(0) int from,
-                                         @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                       @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                       @RequestParam(required = false) String after) {
         log.info("Get requests by user page by page {}", userId);
-        return itemRequestClient.getAllRequests(userId, from, size);
+        return itemRequestClient.getAllRequests(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long requestId) {
         log.info("Get request by requestId {} from user {}", requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
     }
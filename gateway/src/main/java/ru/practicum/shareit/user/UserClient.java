@@ -1,13 +1,12 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -16,32 +15,34 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerClientFactory clientFactory, GatewayResponseCache responseCache) {
+        super(clientFactory, API_PREFIX, responseCache, GatewayResponseCache.USERS);
     }
 
-    public ResponseEntity getUser(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getUser(long userId) {
+        return cachedGet("/" + userId);
     }
 
-    public ResponseEntity getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity updateUser(UserDto userDto, long userId) {
-        return patch("/" + userId, userDto);
+    public Mono<ResponseEntity<Object>> updateUser(UserDto userDto, long userId) {
+        return invalidateOnSuccess(patch("/" + userId, userDto), cache -> {
+            cache.invalidate(GatewayResponseCache.USERS, userId);
+            // Comments on any item show the name of their author.
+            cache.invalidateAll(GatewayResponseCache.ITEMS);
+        });
     }
 
-    public ResponseEntity deleteUser(long userId) {
-        return delete("/" + userId, userId);
+    public Mono<ResponseEntity<Object>> deleteUser(long userId) {
+        return invalidateOnSuccess(delete("/" + userId, userId), cache -> {
+            cache.invalidate(GatewayResponseCache.USERS, userId);
+            cache.invalidateAll(GatewayResponseCache.ITEMS, GatewayResponseCache.REQUESTS);
+        });
     }
 }
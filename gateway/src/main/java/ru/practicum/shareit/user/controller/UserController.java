@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.common.Update;
 import ru.practicum.shareit.user.UserClient;
@@ -28,32 +29,33 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{userId}")
-    public ResponseEntity getUser(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable long userId) {
         log.info("Get user id={}", userId);
         return userClient.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
 
     @PostMapping
-    public ResponseEntity createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
         log.info("Creating user {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity update(@Validated({Update.class}) @PathVariable long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(@Validated({Update.class}) @PathVariable long userId,
+                                               @RequestBody UserDto userDto) {
         log.info("Updating user {}", userDto);
         return userClient.updateUser(userDto, userId);
     }
 
     @DeleteMapping("/{userId}")
-    public void delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable long userId) {
         log.info("Delete user id={}", userId);
-        userClient.deleteUser(userId);
+        return userClient.deleteUser(userId);
     }
 }
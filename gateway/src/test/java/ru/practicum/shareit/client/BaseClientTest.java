@@ -0,0 +1,175 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Sends requests through a {@link BaseClient} built by {@link ServerClientFactory} from the beans of
+ * {@link HttpClientConfig} to a mocked ShareIt server, in both client modes.
+ */
+public class BaseClientTest {
+    private static final String BODY = "[{\"id\":1,\"name\":\"Drill\"}]";
+    private static final String ERROR = "{\"error\":\"Item with id=1 not found.\"}";
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final HttpClientProperties properties = new HttpClientProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MockWebServer server;
+    private CloseableHttpClient httpClient;
+    private ConnectionProvider connectionProvider;
+    private Scheduler scheduler;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+            connectionProvider.dispose();
+            scheduler.dispose();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    void get_shouldRunAsManyBlockingCallsAtOnceAsThePoolHasConnections() {
+        int connections = 10 * Runtime.getRuntime().availableProcessors() + 1;
+        properties.setMaxTotal(connections);
+        properties.setMaxPerRoute(connections);
+        CountDownLatch allInFlight = new CountDownLatch(connections);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                allInFlight.countDown();
+                allInFlight.await(10, TimeUnit.SECONDS);
+                return new MockResponse().setBody(BODY);
+            }
+        });
+        BaseClient client = client(HttpClientProperties.Mode.BLOCKING);
+
+        List<ResponseEntity<Object>> responses = Flux.range(0, connections)
+                .flatMap(i -> client.get("/items"), connections)
+                .collectList()
+                .block(Duration.ofSeconds(20));
+
+        assertEquals(0, allInFlight.getCount());
+        assertEquals(connections, responses.size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(HttpClientProperties.Mode.class)
+    void get_shouldDropHopByHopHeaders(HttpClientProperties.Mode mode) {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.CONNECTION, "keep-alive")
+                .setHeader("Keep-Alive", "timeout=60")
+                .setChunkedBody(BODY, 5));
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(BODY));
+
+        ResponseEntity<Object> chunked = client(mode).get("/items").block();
+        ResponseEntity<Object> fixedLength = client(mode).get("/items").block();
+
+        for (ResponseEntity<Object> response : new ResponseEntity[]{chunked, fixedLength}) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+            assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+            assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+            assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+            assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), body(response));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(HttpClientProperties.Mode.class)
+    void get_shouldRelayErrorStatusAndBodyUnchanged(HttpClientProperties.Mode mode) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(ERROR));
+        server.enqueue(new MockResponse()
+                .setResponseCode(500)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                .setBody("Internal error"));
+
+        ResponseEntity<Object> notFound = client(mode).get("/items/1").block();
+        ResponseEntity<Object> serverError = client(mode).get("/items/2").block();
+
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, notFound.getHeaders().getContentType());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), body(notFound));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, serverError.getStatusCode());
+        assertEquals(MediaType.TEXT_PLAIN, serverError.getHeaders().getContentType());
+        assertArrayEquals("Internal error".getBytes(StandardCharsets.UTF_8), body(serverError));
+    }
+
+    @ParameterizedTest
+    @EnumSource(HttpClientProperties.Mode.class)
+    void get_shouldRelayBodyLargerThanTheCodecLimit(HttpClientProperties.Mode mode) {
+        String largeBody = "[" + "{\"id\":1,\"name\":\"Drill\"},".repeat(30_000) + "{\"id\":2}]";
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(largeBody));
+
+        ResponseEntity<Object> response = client(mode).get("/items").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(largeBody.getBytes(StandardCharsets.UTF_8), body(response));
+    }
+
+    private static byte[] body(ResponseEntity<Object> response) {
+        return response.getBody() instanceof StreamedBody
+                ? ((StreamedBody) response.getBody()).toBytes().block()
+                : (byte[]) response.getBody();
+    }
+
+    private BaseClient client(HttpClientProperties.Mode mode) {
+        properties.setMode(mode);
+        if (httpClient == null) {
+            httpClient = config.shareItServerHttpClient(
+                    config.shareItServerConnectionManager(properties, meterRegistry), properties);
+            connectionProvider = config.shareItServerConnectionProvider(properties);
+            scheduler = config.shareItServerScheduler(properties, null);
+        }
+        ServerClientFactory clientFactory = new ServerClientFactory(server.url("").toString().replaceAll("/$", ""),
+                new RestTemplateBuilder(), config.shareItServerRequestFactory(httpClient), WebClient.builder(),
+                config.shareItServerConnector(connectionProvider, properties), scheduler, properties, meterRegistry);
+        return new BaseClient(clientFactory, "", null, null);
+    }
+}
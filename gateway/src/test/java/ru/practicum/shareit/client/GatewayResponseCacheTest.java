@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GatewayResponseCacheTest {
+    private GatewayResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void createCache() {
+        cache = new GatewayResponseCache(true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldLoadOnMissAndServeHitFromCache() {
+        assertEquals("v1", get("/1|2", "v1"));
+        assertEquals("v1", get("/1|2", "v2"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheErrorResponses() {
+        load("/1|2", ResponseEntity.status(HttpStatus.NOT_FOUND).body("missing"));
+
+        assertEquals("v1", get("/1|2", "v1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldDropOnlyEntriesOfTheResource() {
+        get("/1|2", "v1");
+        get("/1|3", "v1");
+        get("/10|2", "v1");
+
+        cache.invalidate(GatewayResponseCache.ITEMS, 1L);
+
+        assertEquals("v2", get("/1|2", "v2"));
+        assertEquals("v2", get("/1|3", "v2"));
+        assertEquals("v1", get("/10|2", "v2"));
+    }
+
+    @Test
+    void invalidateAll_shouldDropTheRegion() {
+        get("/1|2", "v1");
+        get("/10|2", "v1");
+
+        cache.invalidateAll(GatewayResponseCache.ITEMS);
+
+        assertEquals("v2", get("/1|2", "v2"));
+        assertEquals("v2", get("/10|2", "v2"));
+    }
+
+    @Test
+    void get_shouldNotStoreResponseLoadedBeforeInvalidation() {
+        get("/10|2", "v1");
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        Mono<ResponseEntity<Object>> inFlight = cache.get(GatewayResponseCache.ITEMS, "/1|2", upstream::asMono);
+        inFlight.subscribe();
+
+        cache.invalidate(GatewayResponseCache.ITEMS, 1L);
+        upstream.tryEmitValue(ResponseEntity.ok("stale"));
+
+        assertEquals("fresh", get("/1|2", "fresh"));
+    }
+
+    @Test
+    void get_shouldStoreStreamedBodyAsBytes() {
+        DataBuffer buffer = new DefaultDataBufferFactory().wrap("streamed".getBytes(StandardCharsets.UTF_8));
+        load("/1|2", ResponseEntity.ok(new StreamedBody(Flux.just(buffer))));
+
+        Object body = cache.get(GatewayResponseCache.ITEMS, "/1|2", () -> Mono.error(new AssertionError()))
+                .block().getBody();
+
+        assertArrayEquals("streamed".getBytes(StandardCharsets.UTF_8), (byte[]) body);
+    }
+
+    @Test
+    void get_shouldCallLoaderWhenDisabled() {
+        cache = new GatewayResponseCache(false, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        get("/1|2", "v1");
+        get("/1|2", "v1");
+
+        assertEquals(2, loads.get());
+    }
+
+    private Object get(String key, String body) {
+        return load(key, ResponseEntity.ok(body)).getBody();
+    }
+
+    private ResponseEntity<Object> load(String key, ResponseEntity<Object> response) {
+        return cache.get(GatewayResponseCache.ITEMS, key, () -> {
+            loads.incrementAndGet();
+            return Mono.just(response);
+        }).block();
+    }
+}
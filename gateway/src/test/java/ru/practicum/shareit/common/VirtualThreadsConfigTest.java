@@ -0,0 +1,88 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.HttpClientProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class VirtualThreadsConfigTest {
+    private final VirtualThreadsConfig config = new VirtualThreadsConfig();
+    private final ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+    private final ExecutorService otherExecutor = mock(ExecutorService.class);
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean("otherExecutor", ExecutorService.class, () -> otherExecutor);
+
+    @Test
+    void config_shouldIgnoreOtherExecutorsWithoutProfile() {
+        contextRunner.run(context -> {
+            Mono.fromRunnable(() -> { })
+                    .subscribeOn(context.getBean("shareItServerScheduler", Scheduler.class))
+                    .block(Duration.ofSeconds(5));
+
+            verifyNoInteractions(otherExecutor);
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void config_shouldIgnoreOtherExecutorsWithProfile() {
+        contextRunner.withUserConfiguration(VirtualThreadsConfig.class)
+                .withPropertyValues("spring.profiles.active=virtual-threads")
+                .run(context -> {
+                    context.getBean(TomcatProtocolHandlerCustomizer.class).customize(protocolHandler);
+                    Mono.fromRunnable(() -> { })
+                            .subscribeOn(context.getBean("shareItServerScheduler", Scheduler.class))
+                            .block(Duration.ofSeconds(5));
+
+                    verify(protocolHandler, never()).setExecutor(otherExecutor);
+                    verifyNoInteractions(otherExecutor);
+                });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void config_shouldKeepPlatformThreadsWithoutVirtualThreads() {
+        ExecutorService executor = config.virtualThreadExecutor();
+        config.virtualThreadsProtocolHandlerCustomizer(executor).customize(protocolHandler);
+
+        assertNull(executor);
+        verifyNoInteractions(protocolHandler);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void config_shouldRunRequestsAndBlockingUpstreamCallsOnVirtualThreads() {
+        ExecutorService executor = config.virtualThreadExecutor();
+        Scheduler scheduler = new HttpClientConfig().shareItServerScheduler(new HttpClientProperties(), executor);
+
+        config.virtualThreadsProtocolHandlerCustomizer(executor).customize(protocolHandler);
+        Object virtual = Mono.fromCallable(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                .subscribeOn(scheduler)
+                .block(Duration.ofSeconds(5));
+
+        verify(protocolHandler).setExecutor(executor);
+        assertEquals(true, virtual);
+        scheduler.dispose();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "shareit-gateway.http-client.mode=non-blocking")
+public class NonBlockingUserControllerTest extends UserControllerTest {
+}
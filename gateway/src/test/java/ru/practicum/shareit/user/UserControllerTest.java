@@ -0,0 +1,179 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.ServerClientFactory;
+import ru.practicum.shareit.client.StreamedBodyHttpMessageConverter;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.metrics.ServerTiming;
+import ru.practicum.shareit.metrics.ServerTimingAdvice;
+import ru.practicum.shareit.user.controller.UserController;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends requests through the controller and {@link UserClient} to a mocked ShareIt server and checks what is
+ * relayed back, with RestTemplate; {@link NonBlockingUserControllerTest} runs the same tests with WebClient.
+ */
+@WebMvcTest(UserController.class)
+@Import({UserClient.class, ServerClientFactory.class, HttpClientConfig.class, GatewayResponseCache.class,
+        StreamedBodyHttpMessageConverter.class, SimpleMeterRegistry.class, MetricsConfig.class,
+        ServerTimingAdvice.class})
+@ImportAutoConfiguration({RestTemplateAutoConfiguration.class, WebClientAutoConfiguration.class})
+@TestPropertySource(properties = "shareit-gateway.cache.enabled=false")
+public class UserControllerTest {
+    private static final String USER_JSON = "{\"id\":1,\"name\":\"Galina\",\"email\":\"galina@mail.ru\"}";
+
+    static MockWebServer server;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> server.url("").toString().replaceAll("/$", ""));
+    }
+
+    @Test
+    void getUser_shouldRelayStatusHeadersAndBody() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Server-Header", "server")
+                .setBody(USER_JSON));
+
+        perform(MockMvcRequestBuilders.get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Server-Header", "server"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(USER_JSON));
+
+        RecordedRequest upstream = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("GET", upstream.getMethod());
+        assertEquals("/users/1", upstream.getPath());
+    }
+
+    @Test
+    void getUser_shouldSplitGatewayAndUpstreamTimeInServerTimingHeader() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeadersDelay(50, TimeUnit.MILLISECONDS)
+                .setBody(USER_JSON));
+        long upstreamCalls = upstreamTimer().count();
+
+        perform(MockMvcRequestBuilders.get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTiming.HEADER,
+                        matchesPattern("gateway;dur=\\d+\\.\\d, upstream;dur=([5-9]\\d|\\d{3,})\\.\\d")));
+
+        assertEquals(upstreamCalls + 1, upstreamTimer().count());
+        assertEquals(0, meterRegistry.get("shareit.gateway.requests.in.flight").gauge().value());
+        server.takeRequest(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void createUser_shouldSendBodyAndRelayCreatedUser() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(USER_JSON));
+
+        perform(MockMvcRequestBuilders.post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Galina\",\"email\":\"galina@mail.ru\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().string(USER_JSON));
+
+        RecordedRequest upstream = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("POST", upstream.getMethod());
+        assertEquals("{\"id\":null,\"name\":\"Galina\",\"email\":\"galina@mail.ru\"}", upstream.getBody().readUtf8());
+    }
+
+    @Test
+    void getAllUsers_shouldRelayBodyLargerThanTheCodecLimit() throws Exception {
+        String users = "[" + (USER_JSON + ",").repeat(6_000) + USER_JSON + "]";
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(users));
+
+        perform(MockMvcRequestBuilders.get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(users));
+
+        server.takeRequest(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deleteUser_shouldSendDeleteToServer() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        perform(MockMvcRequestBuilders.delete("/users/1"))
+                .andExpect(status().isOk());
+
+        RecordedRequest upstream = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("DELETE", upstream.getMethod());
+        assertEquals("/users/1", upstream.getPath());
+    }
+
+    private Timer upstreamTimer() {
+        return Timer.builder("shareit.gateway.upstream")
+                .tags("route", "/users/{id}", "method", "GET", "status", "200", "outcome", "SUCCESS",
+                        "exception", "none")
+                .register(meterRegistry);
+    }
+
+    ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
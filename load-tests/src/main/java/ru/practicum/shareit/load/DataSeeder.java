@@ -0,0 +1,187 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the server schema and fills it with generated rows through batched JDBC inserts.
+ * One user in ten owns items; bookings are spread over the past year and the next two months.
+ */
+@Slf4j
+class DataSeeder {
+    static final List<String> WORDS = List.of("drill", "hammer", "saw", "ladder", "tent", "bike", "kayak", "camera",
+            "projector", "speaker", "mixer", "vacuum", "grill", "stroller", "scooter", "guitar", "telescope", "wrench",
+            "sander", "compressor");
+
+    private static final List<String> ADJECTIVES = List.of("cordless", "heavy", "compact", "folding", "electric",
+            "old", "new", "professional", "small", "large");
+    private static final List<String> STATUSES = List.of("APPROVED", "APPROVED", "APPROVED", "APPROVED",
+            "APPROVED", "APPROVED", "WAITING", "WAITING", "REJECTED", "CANCELED");
+    private static final int BATCH_SIZE = 5_000;
+
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+    private final int users;
+    private final int owners;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+    private final int requests;
+
+    DataSeeder(LoadTestConfig config) {
+        this.random = new Random(config.getInt("seed"));
+        this.users = config.getInt("users");
+        this.owners = Math.max(1, users / 10);
+        this.items = config.getInt("items");
+        this.bookings = config.getInt("bookings");
+        this.comments = config.getInt("comments");
+        this.requests = config.getInt("requests");
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getOwners() {
+        return owners;
+    }
+
+    void seed(Connection connection) throws SQLException {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        connection.setAutoCommit(false);
+        insertUsers(connection);
+        insertRequests(connection);
+        insertItems(connection);
+        insertBookings(connection);
+        insertComments(connection);
+        connection.setAutoCommit(true);
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into users (id, name, email) values (?, ?, ?)")) {
+            for (long id = 1; id <= users; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "User " + id);
+                insert.setString(3, "user" + id + "@shareit.ru");
+                addBatch(connection, insert, id);
+            }
+            finish(connection, insert, "users", users);
+        }
+    }
+
+    private void insertRequests(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into requests (id, description, requester_id, created_date) values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= requests; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Looking for a " + word() + " for the weekend");
+                insert.setLong(3, anyUser());
+                insert.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addBatch(connection, insert, id);
+            }
+            finish(connection, insert, "requests", requests);
+        }
+    }
+
+    private void insertItems(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("insert into items"
+                + " (id, name, description, available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= items; id++) {
+                String word = word();
+                insert.setLong(1, id);
+                insert.setString(2, capitalize(adjective()) + " " + word + " " + id);
+                insert.setString(3, capitalize(adjective()) + " " + word + " in good condition, comes with a "
+                        + word() + " and a case");
+                insert.setBoolean(4, random.nextInt(10) > 0);
+                insert.setLong(5, 1 + random.nextInt(owners));
+                if (requests > 0 && random.nextInt(5) == 0) {
+                    insert.setLong(6, 1 + random.nextInt(requests));
+                } else {
+                    insert.setNull(6, Types.BIGINT);
+                }
+                addBatch(connection, insert, id);
+            }
+            finish(connection, insert, "items", items);
+        }
+    }
+
+    private void insertBookings(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("insert into booking"
+                + " (id, start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= bookings; id++) {
+                LocalDateTime start = now.plusHours(random.nextInt(10_272) - 8_760L);
+                insert.setLong(1, id);
+                insert.setTimestamp(2, Timestamp.valueOf(start));
+                insert.setTimestamp(3, Timestamp.valueOf(start.plusHours(1 + random.nextInt(336))));
+                insert.setLong(4, 1 + random.nextInt(items));
+                insert.setLong(5, anyUser());
+                insert.setString(6, STATUSES.get(random.nextInt(STATUSES.size())));
+                addBatch(connection, insert, id);
+            }
+            finish(connection, insert, "booking", bookings);
+        }
+    }
+
+    private void insertComments(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("insert into comments"
+                + " (id, text, item_id, user_id, created_date) values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= comments; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "The " + word() + " worked fine, would rent again");
+                insert.setLong(3, 1 + random.nextInt(items));
+                insert.setLong(4, anyUser());
+                insert.setTimestamp(5, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addBatch(connection, insert, id);
+            }
+            finish(connection, insert, "comments", comments);
+        }
+    }
+
+    private void addBatch(Connection connection, PreparedStatement insert, long id) throws SQLException {
+        insert.addBatch();
+        if (id % BATCH_SIZE == 0) {
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Flushes the last batch and moves the identity column past the generated ids.
+     */
+    private void finish(Connection connection, PreparedStatement insert, String table, int rows) throws SQLException {
+        insert.executeBatch();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + table + " alter column id restart with " + (rows + 1));
+        }
+        connection.commit();
+        log.info("Seeded {} rows into {}", rows, table);
+    }
+
+    private long anyUser() {
+        return 1 + random.nextInt(users);
+    }
+
+    private String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private String adjective() {
+        return ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load: every worker sends the next request as soon as the previous one is answered.
+ * Latencies recorded during the warm-up are dropped.
+ */
+@Slf4j
+class LoadRunner {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI gatewayUri;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final int users;
+    private final int owners;
+    private final Map<Scenario, Recorder> latencies = new LinkedHashMap<>();
+    private final Map<Scenario, AtomicLong> errors = new LinkedHashMap<>();
+
+    LoadRunner(URI gatewayUri, List<Scenario> scenarios, int users, int owners) {
+        this.gatewayUri = gatewayUri;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::getWeight).sum();
+        this.users = users;
+        this.owners = owners;
+        for (Scenario scenario : scenarios) {
+            latencies.put(scenario, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(scenario, new AtomicLong());
+        }
+    }
+
+    void run(int concurrency, Duration warmup, Duration duration, long seed, PrintStream report)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(seed + i);
+            workers.execute(() -> work(random, stopAt));
+        }
+        log.info("Warming up for {} with {} workers", warmup, concurrency);
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        latencies.values().forEach(Recorder::reset);
+        errors.values().forEach(count -> count.set(0));
+        log.info("Measuring for {}", duration);
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        print(report, duration);
+    }
+
+    private void work(Random random, long stopAt) {
+        while (System.nanoTime() < stopAt) {
+            Scenario scenario = next(random);
+            HttpRequest request = HttpRequest.newBuilder(gatewayUri.resolve(scenario.path(random)))
+                    .header("X-Sharer-User-Id", String.valueOf(scenario.userId(random, users, owners)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .build();
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                failed = status >= 500;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            latencies.get(scenario).recordValue(Math.min(MAX_LATENCY_MICROS,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+            if (failed) {
+                errors.get(scenario).incrementAndGet();
+            }
+        }
+    }
+
+    private Scenario next(Random random) {
+        int point = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            point -= scenario.getWeight();
+            if (point < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void print(PrintStream report, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        String format = "%-16s %10s %10s %10s %10s %10s %8s%n";
+        report.printf(format, "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        List<String> rows = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            Histogram histogram = latencies.get(scenario).getIntervalHistogram();
+            long scenarioErrors = errors.get(scenario).get();
+            total.add(histogram);
+            totalErrors += scenarioErrors;
+            rows.add(row(format, scenario.getName(), histogram, seconds, scenarioErrors));
+        }
+        rows.forEach(report::print);
+        report.print(row(format, "total", total, seconds, totalErrors));
+    }
+
+    private static String row(String format, String name, Histogram histogram, double seconds, long errors) {
+        return String.format(format, name,
+                histogram.getTotalCount(),
+                String.format("%.1f", histogram.getTotalCount() / seconds),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getMaxValue()),
+                errors);
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.Server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds a database, starts the server and the gateway on it and drives the scenario mix through the gateway.
+ * Prints request count, throughput and p50/p99 latency per scenario. See {@code load-test.properties} for
+ * the settings.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        String jdbcUrl = config.getString("jdbc-url");
+        String username = config.getString("jdbc-username");
+        String password = config.getString("jdbc-password");
+        Server h2 = null;
+        if (jdbcUrl.isEmpty()) {
+            int h2Port = freePort();
+            h2 = Server.createTcpServer("-tcpPort", String.valueOf(h2Port), "-ifNotExists").start();
+            jdbcUrl = "jdbc:h2:tcp://localhost:" + h2Port + "/mem:shareit;DB_CLOSE_DELAY=-1";
+        }
+        try {
+            DataSeeder seeder = new DataSeeder(config);
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+                seeder.seed(connection);
+            }
+            int serverPort = freePort();
+            int gatewayPort = freePort();
+            URI serverUri = URI.create("http://localhost:" + serverPort);
+            URI gatewayUri = URI.create("http://localhost:" + gatewayPort);
+            List<String> serverArgs = new ArrayList<>(List.of(
+                    "--server.port=" + serverPort,
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + username,
+                    "--spring.datasource.password=" + password,
+                    "--spring.datasource.driver-class-name=" + driverClassName(jdbcUrl),
+                    "--spring.sql.init.mode=never",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.org.springframework.transaction.interceptor=INFO",
+                    "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"));
+            if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+                serverArgs.add("--spring.profiles.active=postgres");
+            }
+            serverArgs.addAll(config.getList("server-args"));
+            try (ServiceProcess server = ServiceProcess.start("server", Path.of(config.getString("server-jar")),
+                    config.getString("java-options"), serverArgs);
+                 ServiceProcess gateway = ServiceProcess.start("gateway", Path.of(config.getString("gateway-jar")),
+                         config.getString("java-options"), List.of(
+                                 "--server.port=" + gatewayPort,
+                                 "--shareit-server.url=" + serverUri,
+                                 "--logging.level.org.springframework.web.client.RestTemplate=INFO"))) {
+                server.awaitHealthy(serverUri, config.getDuration("startup-timeout"));
+                gateway.awaitHealthy(gatewayUri, config.getDuration("startup-timeout"));
+                new LoadRunner(gatewayUri, Scenario.load(config.getString("scenarios")), seeder.getUsers(),
+                        seeder.getOwners())
+                        .run(config.getInt("concurrency"), config.getDuration("warmup"),
+                                config.getDuration("duration"), config.getInt("seed"), System.out);
+            }
+        } finally {
+            if (h2 != null) {
+                h2.stop();
+            }
+        }
+    }
+
+    private static String driverClassName(String jdbcUrl) throws SQLException {
+        return DriverManager.getDriver(jdbcUrl).getClass().getName();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
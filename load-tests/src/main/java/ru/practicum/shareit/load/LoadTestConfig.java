@@ -0,0 +1,54 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Defaults from {@code load-test.properties}, overridden by system properties with the same names.
+ */
+class LoadTestConfig {
+    private static final String DEFAULTS = "load-test.properties";
+    private static final String PREFIX = "shareit.load.";
+
+    private final Properties properties = new Properties();
+
+    LoadTestConfig() {
+        try (InputStream defaults = LoadTestConfig.class.getClassLoader().getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IllegalStateException(DEFAULTS + " is missing from the classpath");
+            }
+            properties.load(defaults);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+    }
+
+    String getString(String name) {
+        return properties.getProperty(PREFIX + name, "").trim();
+    }
+
+    /**
+     * @return the whitespace-separated values of the setting, empty if it is blank
+     */
+    List<String> getList(String name) {
+        String value = getString(name);
+        return value.isEmpty() ? List.of() : List.of(value.split("\\s+"));
+    }
+
+    int getInt(String name) {
+        return Integer.parseInt(getString(name));
+    }
+
+    Duration getDuration(String name) {
+        return DurationStyle.detectAndParse(getString(name));
+    }
+}
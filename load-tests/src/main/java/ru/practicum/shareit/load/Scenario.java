@@ -0,0 +1,81 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * One line of the scenario file: a gateway GET with placeholders and the share of requests it gets.
+ */
+class Scenario {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    private final String name;
+    private final int weight;
+    private final boolean ownerOnly;
+    private final String pathTemplate;
+
+    private Scenario(String name, int weight, boolean ownerOnly, String pathTemplate) {
+        this.name = name;
+        this.weight = weight;
+        this.ownerOnly = ownerOnly;
+        this.pathTemplate = pathTemplate;
+    }
+
+    /**
+     * Reads {@code name;weight;user;path} lines, where user is {@code any} or {@code owner}.
+     * Accepts {@code classpath:} and file locations.
+     */
+    static List<Scenario> load(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(Scenario::parse)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read scenarios from " + location, e);
+        }
+    }
+
+    private static Scenario parse(String line) {
+        String[] columns = line.split(";", 4);
+        if (columns.length != 4) {
+            throw new IllegalArgumentException("Expected name;weight;user;path but got: " + line);
+        }
+        String user = columns[2].trim();
+        if (!"any".equals(user) && !"owner".equals(user)) {
+            throw new IllegalArgumentException("User must be any or owner: " + line);
+        }
+        return new Scenario(columns[0].trim(), Integer.parseInt(columns[1].trim()), "owner".equals(user),
+                columns[3].trim());
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    long userId(Random random, int users, int owners) {
+        return 1 + random.nextInt(ownerOnly ? owners : users);
+    }
+
+    String path(Random random) {
+        return pathTemplate
+                .replace("{state}", STATES.get(random.nextInt(STATES.size())))
+                .replace("{text}", DataSeeder.WORDS.get(random.nextInt(DataSeeder.WORDS.size())));
+    }
+}
@@ -3,7 +3,6 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,10 +12,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.common.PageMaker;
+import ru.practicum.shareit.metrics.SqlBudget;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -34,6 +37,22 @@ public class BookingController {
         return bookingService.createBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody List<BookingDto> bookingDtos) {
+        log.info("Creating {} bookings", bookingDtos.size());
+        return bookingService.createBookings(bookingDtos, userId);
+    }
+
+    @PatchMapping("/approve")
+    @SqlBudget(3)
+    public List<BookingDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestParam(value = "approved") Boolean approved,
+                                            @RequestBody List<Long> bookingIds) {
+        log.info("Update {} bookings", bookingIds.size());
+        return bookingService.updateBookings(bookingIds, userId, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable Long bookingId,
@@ -43,6 +62,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
+    @SqlBudget(1)
     public BookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long bookingId) {
         log.info("Get booking {}", bookingId);
@@ -50,22 +70,47 @@ public class BookingController {
     }
 
     @GetMapping
+    @SqlBudget(3)
     public List<BookingDto> getAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @RequestParam(value = "state", defaultValue = "ALL") String state,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(required = false) String after,
+                                         HttpServletResponse response) {
         log.info("Get all bookings by user={}", userId);
-        Pageable page = PageMaker.makePageableWithSort(from, size);
-        return bookingService.getAllBookingByUserId(userId, state, page);
+        List<BookingDto> bookings;
+        if (after == null) {
+            bookings = bookingService.getAllBookingByUserId(userId, state, PageMaker.makePageableWithSort(from, size));
+        } else {
+            bookings = bookingService.getAllBookingByUserIdAfter(userId, state, after, size);
+        }
+        setNextPageAfter(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
+    @SqlBudget(3)
     public List<BookingDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestParam(value = "state", defaultValue = "ALL") String state,
                                           @RequestParam(defaultValue = "0") int from,
-                                          @RequestParam(defaultValue = "10") int size) {
+                                          @RequestParam(defaultValue = "10") int size,
+                                          @RequestParam(required = false) String after,
+                                          HttpServletResponse response) {
         log.info("Get all bookings by owner={}", userId);
-        Pageable page = PageMaker.makePageableWithSort(from, size);
-        return bookingService.getAllBookingByOwnerId(userId, state, page);
+        List<BookingDto> bookings;
+        if (after == null) {
+            bookings = bookingService.getAllBookingByOwnerId(userId, state, PageMaker.makePageableWithSort(from, size));
+        } else {
+            bookings = bookingService.getAllBookingByOwnerIdAfter(userId, state, after, size);
+        }
+        setNextPageAfter(response, bookings, size);
+        return bookings;
+    }
+
+    private void setNextPageAfter(HttpServletResponse response, List<BookingDto> bookings, int size) {
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.setHeader(PageCursor.NEXT_PAGE_HEADER, PageCursor.encode(last.getStart(), last.getId()));
+        }
     }
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingBatchRepository {
+    /**
+     * Inserts new bookings with one JDBC batch and sets their generated ids. Unlike {@code saveAll} it does not
+     * issue an insert per booking: Hibernate cannot batch inserts of entities with IDENTITY ids.
+     * The bookings are not attached to the persistence context.
+     */
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Moves those of the bookings that belong to the owner's items and are in the {@code from} status to the
+     * {@code to} status with one conditional update. Bookings in another status or of other owners stay as they are.
+     * The check and the change are one statement, so of two concurrent calls for a booking only one moves it.
+     *
+     * @return the moved bookings ordered by id, read from the updated rows; item and booker are references
+     * that are not loaded until used
+     */
+    List<Booking> updateStatus(Collection<Long> bookingIds, Long ownerId, BookingStatus from, BookingStatus to);
+}
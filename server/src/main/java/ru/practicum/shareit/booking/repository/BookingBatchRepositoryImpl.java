@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT = "insert into booking (start_date, end_date, item_id, booker_id, status) " +
+            "values (?, ?, ?, ?, ?)";
+    /**
+     * The ids are passed as one array parameter, so the statement text and its server-side prepared statement
+     * are the same for any number of bookings.
+     */
+    private static final String UPDATE_STATUS = "update booking set status = ? " +
+            "where id = any(?) and status = ? and item_id in (select id from items where owner_id = ?)";
+
+    private static final String[] UPDATED_COLUMNS = {"id", "start_date", "end_date", "item_id", "booker_id"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                (PreparedStatement statement) -> {
+                    for (Booking booking : bookings) {
+                        statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                        statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                        statement.setLong(3, booking.getItem().getId());
+                        statement.setLong(4, booking.getBooker().getId());
+                        statement.setString(5, booking.getStatus().name());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Booking booking : bookings) {
+                            keys.next();
+                            booking.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public List<Booking> updateStatus(Collection<Long> bookingIds, Long ownerId, BookingStatus from,
+                                      BookingStatus to) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        // Asking for columns as generated keys makes the driver return them for the updated rows,
+        // pgjdbc adds a RETURNING clause for that.
+        List<Booking> bookings = jdbcTemplate.execute(
+                connection -> connection.prepareStatement(UPDATE_STATUS, UPDATED_COLUMNS),
+                (PreparedStatement statement) -> {
+                    statement.setString(1, to.name());
+                    statement.setArray(2, statement.getConnection().createArrayOf("BIGINT", bookingIds.toArray()));
+                    statement.setString(3, from.name());
+                    statement.setLong(4, ownerId);
+                    statement.executeUpdate();
+                    List<Booking> updated = new ArrayList<>();
+                    try (ResultSet rows = statement.getGeneratedKeys()) {
+                        while (rows.next()) {
+                            updated.add(new Booking(rows.getLong("id"),
+                                    rows.getTimestamp("start_date").toLocalDateTime(),
+                                    rows.getTimestamp("end_date").toLocalDateTime(),
+                                    entityManager.getReference(Item.class, rows.getLong("item_id")),
+                                    entityManager.getReference(User.class, rows.getLong("booker_id")),
+                                    to));
+                        }
+                    }
+                    return updated;
+                });
+        bookings.sort(Comparator.comparing(Booking::getId));
+        return bookings;
+    }
+}
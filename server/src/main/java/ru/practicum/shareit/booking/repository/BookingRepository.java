@@ -1,23 +1,53 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.availability.BookedInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> getAllByItemOwnerIdOrderByStartDesc(Long userId);
+    /**
+     * Reads at most one booking id, so the check stops at the first booking of the owner's items.
+     */
+    default boolean existsByItemOwnerId(Long userId) {
+        return !findIdsByItemOwnerId(userId, PageRequest.of(0, 1)).isEmpty();
+    }
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> getAllByBookerIdOrderByStartDesc(Long userId);
+    @Query("select b.id" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)")
+    List<Long> findIdsByItemOwnerId(Long userId, Pageable page);
+
+    /**
+     * Reads at most one booking id, so the check stops at the first booking of the user.
+     */
+    default boolean existsByBookerId(Long userId) {
+        return !findIdsByBookerId(userId, PageRequest.of(0, 1)).isEmpty();
+    }
+
+    @Query("select b.id" +
+            " from Booking as b" +
+            " where b.booker.id = :userId")
+    List<Long> findIdsByBookerId(Long userId, Pageable page);
+
+    @Query("select case when count(b.id) > 0 then true else false end" +
+            " from Booking as b" +
+            " where b.item.id = :itemId" +
+            " and b.status in :statuses" +
+            " and b.start < :end" +
+            " and b.end > :start")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b from Booking b " +
@@ -26,32 +56,50 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> getByBookerIdStatePast(Long id, LocalDateTime currentTime);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    Booking getTopByItemIdAndStartAfterOrderByStartAsc(Long id, LocalDateTime start);
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in :itemIds" +
+            " and b.end = (select max(lb.end) from Booking as lb" +
+            " where lb.item.id = b.item.id and lb.end < :currentTime)" +
+            " order by b.id asc")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime currentTime);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    Booking getFirstByItemIdAndEndBeforeOrderByEndDesc(Long id, LocalDateTime end);
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in :itemIds" +
+            " and b.start = (select min(nb.start) from Booking as nb" +
+            " where nb.item.id = b.item.id and nb.start > :currentTime)" +
+            " order by b.id asc")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime currentTime);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable page);
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " order by b.start desc")
+    Slice<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " order by b.start desc")
     List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.start <= :timeNow" +
             " and b.end > :timeNow" +
             " order by b.start desc")
-    Page<Booking> findCurrentBookingsByBookerId(Long bookerId, LocalDateTime timeNow, Pageable page);
+    Slice<Booking> findCurrentBookingsByBookerId(Long bookerId, LocalDateTime timeNow, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.start <= :timeNow" +
             " and b.end > :timeNow" +
             " order by b.start desc")
@@ -60,17 +108,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.end <= :endTime" +
             " order by b.start desc")
-    Page<Booking> findByBookerIdAndEndInPast(Long bookerId, LocalDateTime endTime, Pageable page);
+    Slice<Booking> findByBookerIdAndEndInPast(Long bookerId, LocalDateTime endTime, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.end <= :endTime" +
             " order by b.start desc")
     List<Booking> findByBookerIdAndEndInPast(Long bookerId, LocalDateTime endTime);
@@ -78,17 +124,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.start > :startTime" +
             " order by b.start desc")
-    Page<Booking> findByBookerIdAndStartInFuture(Long bookerId, LocalDateTime startTime, Pageable page);
+    Slice<Booking> findByBookerIdAndStartInFuture(Long bookerId, LocalDateTime startTime, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.start > :startTime" +
             " order by b.start desc")
     List<Booking> findByBookerIdAndStartInFuture(Long bookerId, LocalDateTime startTime);
@@ -96,17 +140,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.status = :status" +
             " order by b.start desc")
-    Page<Booking> findByBookerIdAndStatusContaining(Long bookerId, BookingStatus status, Pageable page);
+    Slice<Booking> findByBookerIdAndStatusContaining(Long bookerId, BookingStatus status, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.booker as u" +
-            " where u.id = :bookerId" +
+            " where b.booker.id = :bookerId" +
             " and b.status = :status" +
             " order by b.start desc")
     List<Booking> findByBookerIdAndStatusContaining(Long bookerId, BookingStatus status);
@@ -114,39 +156,31 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = ?1" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = ?1)" +
             " order by b.start desc")
-    Page<Booking> getAllBookingsForOwnersItems(Long userId, Pageable page);
+    Slice<Booking> getAllBookingsForOwnersItems(Long userId, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " order by b.start desc")
     List<Booking> getAllBookingsForOwnersItems(Long userId);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.start <= :startTime" +
             " and b.end > :endTime" +
             " order by b.start desc")
-    Page<Booking> getCurrentBookingsForOwnersItems(Long userId, LocalDateTime startTime, LocalDateTime endTime,
+    Slice<Booking> getCurrentBookingsForOwnersItems(Long userId, LocalDateTime startTime, LocalDateTime endTime,
                                                    Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.start <= :startTime" +
             " and b.end > :endTime" +
             " order by b.start desc")
@@ -155,19 +189,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.end <= :endTime" +
             " order by b.start desc")
-    Page<Booking> getPastBookingsForOwnersItems(Long userId, LocalDateTime endTime, Pageable page);
+    Slice<Booking> getPastBookingsForOwnersItems(Long userId, LocalDateTime endTime, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.end <= :endTime" +
             " order by b.start desc")
     List<Booking> getPastBookingsForOwnersItems(Long userId, LocalDateTime endTime);
@@ -175,19 +205,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.start > :startTime" +
             " order by b.start desc")
-    Page<Booking> getFutureBookingsForOwnersItems(Long userId, LocalDateTime startTime, Pageable page);
+    Slice<Booking> getFutureBookingsForOwnersItems(Long userId, LocalDateTime startTime, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.start > :startTime" +
             " order by b.start desc")
     List<Booking> getFutureBookingsForOwnersItems(Long userId, LocalDateTime startTime);
@@ -195,28 +221,149 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.status = :status" +
             " order by b.start desc")
-    Page<Booking> getBookingsForOwnersWithStatusContaining(Long userId, BookingStatus status, Pageable page);
+    Slice<Booking> getBookingsForOwnersWithStatusContaining(Long userId, BookingStatus status, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
     @Query("select b" +
             " from Booking as b" +
-            " join b.item as i" +
-            " join i.owner as o" +
-            " where o.id = :userId" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
             " and b.status = :status" +
             " order by b.start desc")
     List<Booking> getBookingsForOwnersWithStatusContaining(Long userId, BookingStatus status);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    Booking getFirstByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(long itemId, BookingStatus status,
-                                                                     LocalDateTime date);
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> findByBookerIdAfterCursor(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    Booking getFirstByItemIdAndStatusNotAndStartAfterOrderByStart(long itemId, BookingStatus status,
-                                                                  LocalDateTime date);
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " and b.start <= :timeNow" +
+            " and b.end > :timeNow" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> findCurrentBookingsByBookerIdAfterCursor(Long bookerId, LocalDateTime timeNow,
+                                                           LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " and b.end <= :endTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> findByBookerIdAndEndInPastAfterCursor(Long bookerId, LocalDateTime endTime,
+                                                        LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " and b.start > :startTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> findByBookerIdAndStartInFutureAfterCursor(Long bookerId, LocalDateTime startTime,
+                                                            LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.booker.id = :bookerId" +
+            " and b.status = :status" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> findByBookerIdAndStatusAfterCursor(Long bookerId, BookingStatus status, LocalDateTime cursorStart,
+                                                     Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> getAllBookingsForOwnersItemsAfterCursor(Long userId, LocalDateTime cursorStart, Long cursorId,
+                                                          Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
+            " and b.start <= :timeNow" +
+            " and b.end > :timeNow" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> getCurrentBookingsForOwnersItemsAfterCursor(Long userId, LocalDateTime timeNow,
+                                                              LocalDateTime cursorStart, Long cursorId,
+                                                              Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
+            " and b.end <= :endTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> getPastBookingsForOwnersItemsAfterCursor(Long userId, LocalDateTime endTime,
+                                                           LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
+            " and b.start > :startTime" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> getFutureBookingsForOwnersItemsAfterCursor(Long userId, LocalDateTime startTime,
+                                                             LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in (select i.id from Item as i where i.owner.id = :userId)" +
+            " and b.status = :status" +
+            " and (b.start < :cursorStart or (b.start = :cursorStart and b.id > :cursorId))" +
+            " order by b.start desc, b.id asc")
+    List<Booking> getBookingsForOwnersWithStatusAfterCursor(Long userId, BookingStatus status,
+                                                            LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id = :itemId" +
+            " and b.status <> :status" +
+            " and b.start < :date" +
+            " order by b.end desc")
+    List<Booking> findLastBookingsByItemId(long itemId, BookingStatus status, LocalDateTime date, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id = :itemId" +
+            " and b.status <> :status" +
+            " and b.start > :date" +
+            " order by b.start")
+    List<Booking> findNextBookingsByItemId(long itemId, BookingStatus status, LocalDateTime date, Pageable page);
+
+    @Query("select new ru.practicum.shareit.item.availability.BookedInterval(b.id, b.start, b.end)" +
+            " from Booking as b" +
+            " where b.item.id = :itemId" +
+            " and b.status <> :status")
+    List<BookedInterval> findBookedIntervalsByItemId(Long itemId, BookingStatus status);
+
+    @Query("select b" +
+            " from Booking as b" +
+            " where b.item.id in :itemIds" +
+            " and b.status in :statuses" +
+            " and b.start < :end" +
+            " and b.end > :start")
+    List<Booking> findOverlappingByItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                           LocalDateTime start, LocalDateTime end);
 }
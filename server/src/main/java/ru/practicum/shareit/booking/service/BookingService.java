@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
@@ -8,11 +9,19 @@ import java.util.List;
 public interface BookingService {
     BookingDto createBooking(BookingDto bookingDto, Long userId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long userId);
+
     BookingDto updateBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingDto> updateBookings(List<Long> bookingIds, Long userId, Boolean approved);
+
     BookingDto getBookingById(Long userId, Long bookingId);
 
     List<BookingDto> getAllBookingByUserId(Long userId, String stateName, Pageable page);
 
     List<BookingDto> getAllBookingByOwnerId(Long userId, String stateName, Pageable page);
+
+    List<BookingDto> getAllBookingByUserIdAfter(Long userId, String stateName, String after, int size);
+
+    List<BookingDto> getAllBookingByOwnerIdAfter(Long userId, String stateName, String after, int size);
 }
@@ -1,35 +1,59 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.exception.InvalidPathVariableException;
+import ru.practicum.shareit.exception.ObjectExistException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ObjectValidationException;
 import ru.practicum.shareit.exception.StatusBookingException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    /**
+     * Bookings that hold their dates: a new booking may not overlap any of them.
+     */
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_APPROVAL_SIZE = 1000;
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -48,11 +72,118 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto createBooking(BookingDto bookingDto, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ObjectNotFoundException("User with id= " + userId + " not found."));
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> new ObjectNotFoundException("Item with id= " + bookingDto.getItemId() +
                         " not found."));
         Booking booking = BookingMapper.toBooking(user, item, bookingDto);
         booking.setStatus(BookingStatus.WAITING);
+        validateNewBooking(booking);
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), ACTIVE_STATUSES,
+                booking.getEnd(), booking.getStart())) {
+            throw new ObjectExistException("The item is already booked for these dates.");
+        }
+        Booking savedBooking = bookingRepository.save(booking);
+        itemAvailabilityIndex.index(savedBooking);
+        return BookingMapper.toBookingDto(savedBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long userId) {
+        if (bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ObjectValidationException("A batch cannot contain more than " + MAX_BATCH_SIZE +
+                    " bookings.");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ObjectNotFoundException("User with id= " + userId + " not found."));
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdInForUpdate(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> activeBookings = findActiveBookings(items.keySet(), bookingDtos);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                if (bookingDto.getItemId() == null) {
+                    throw new ObjectValidationException("Item id is empty.");
+                }
+                if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+                    throw new ObjectValidationException("The dates of the booking are empty.");
+                }
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new ObjectNotFoundException("Item with id= " + bookingDto.getItemId() + " not found.");
+                }
+                Booking booking = BookingMapper.toBooking(user, item, bookingDto);
+                booking.setStatus(BookingStatus.WAITING);
+                validateNewBooking(booking);
+                List<Booking> itemBookings = activeBookings.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                // Earlier elements of the batch hold their dates as well.
+                if (itemBookings.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd()) &&
+                        other.getEnd().isAfter(booking.getStart()))) {
+                    throw new ObjectExistException("The item is already booked for these dates.");
+                }
+                itemBookings.add(booking);
+                accepted.add(booking);
+                results.add(BookingBatchResultDto.builder().index(i).status(HttpStatus.OK.value()).build());
+            } catch (ObjectNotFoundException e) {
+                results.add(failed(i, HttpStatus.NOT_FOUND, e));
+            } catch (ObjectValidationException e) {
+                results.add(failed(i, HttpStatus.BAD_REQUEST, e));
+            } catch (ObjectExistException e) {
+                results.add(failed(i, HttpStatus.CONFLICT, e));
+            }
+        }
+
+        bookingRepository.insertAll(accepted);
+        Iterator<Booking> inserted = accepted.iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getStatus() == HttpStatus.OK.value()) {
+                Booking booking = inserted.next();
+                itemAvailabilityIndex.index(booking);
+                result.setBooking(BookingMapper.toBookingDto(booking));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return active bookings of the items that overlap the period spanned by the batch, by item id
+     */
+    private Map<Long, List<Booking>> findActiveBookings(Set<Long> itemIds, List<BookingDto> bookingDtos) {
+        LocalDateTime start = bookingDtos.stream()
+                .map(BookingDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime end = bookingDtos.stream()
+                .map(BookingDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || start == null || end == null) {
+            return new HashMap<>();
+        }
+        return bookingRepository.findOverlappingByItemIds(itemIds, ACTIVE_STATUSES, start, end)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+
+    private static BookingBatchResultDto failed(int index, HttpStatus status, RuntimeException e) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    private static void validateNewBooking(Booking booking) {
         if (booking.getBooker().getId().equals(booking.getItem().getOwner().getId())) {
             throw new ObjectNotFoundException("Owner cannot book his item.");
         }
@@ -71,40 +202,83 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getEnd().isBefore(LocalDateTime.now())) {
             throw new ObjectValidationException("The end of the booking cannot be in the past.");
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * The transition is one conditional update, so of two concurrent decisions on a booking only one applies.
+     * Only a waiting booking can be decided. Approving it needs no overlap check: a waiting booking already holds
+     * its dates, so it cannot overlap another waiting or approved booking.
+     */
     @Override
     @Transactional
     public BookingDto updateBooking(Long bookingId, Long userId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ObjectNotFoundException("Booking with id= " + bookingId + " not found."));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<Booking> updated = bookingRepository.updateStatus(List.of(bookingId), userId, BookingStatus.WAITING,
+                status);
+        if (updated.isEmpty()) {
+            throw notUpdatedReason(bookingId, userId, status);
+        }
+        Booking booking = updated.get(0);
+        itemAvailabilityIndex.index(booking);
+        return BookingMapper.toBookingDto(booking);
+    }
 
+    /**
+     * Works out why the conditional update did not change the booking. Only runs when it did not.
+     */
+    private RuntimeException notUpdatedReason(Long bookingId, Long userId, BookingStatus status) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new ObjectNotFoundException("Booking with id= " + bookingId + " not found.");
+        }
         if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ObjectNotFoundException("The user isn't the owner of item.");
+            return new ObjectNotFoundException("The user isn't the owner of item.");
         }
-        if (booking.getStatus().equals(BookingStatus.APPROVED) && approved) {
-            throw new ObjectValidationException("The booking is already approved.");
+        if (booking.getStatus() == status) {
+            return new ObjectValidationException("The booking is already " + status.name().toLowerCase() + ".");
         }
-        if (booking.getStatus().equals(BookingStatus.REJECTED) && !approved) {
-            throw new ObjectValidationException("The booking is already rejected.");
+        return new ObjectExistException("The booking is " + booking.getStatus().name().toLowerCase() +
+                " and cannot be " + status.name().toLowerCase() + ".");
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDto> updateBookings(List<Long> bookingIds, Long userId, Boolean approved) {
+        if (bookingIds.size() > MAX_APPROVAL_SIZE) {
+            throw new ObjectValidationException("Cannot update more than " + MAX_APPROVAL_SIZE +
+                    " bookings at once.");
         }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        if (bookingIds.stream().anyMatch(Objects::isNull)) {
+            throw new ObjectValidationException("Booking id is empty.");
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        userRepository.findById(userId)
+                .orElseThrow(() -> new ObjectNotFoundException("User with id= " + userId + " not found."));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<Booking> bookings = bookingRepository.updateStatus(new HashSet<>(bookingIds), userId,
+                BookingStatus.WAITING, status);
+        if (bookings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Loads the items of the updated bookings with one query instead of one per item reference.
+        itemRepository.findAllById(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        bookings.forEach(itemAvailabilityIndex::index);
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingByUserId(Long userId, String stateName, Pageable page) {
-        userRepository.existsById(userId);
-        List<Booking> bookings = bookingRepository.getAllByBookerIdOrderByStartDesc(userId);
-        if (bookings.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id= " + userId + " not found.");
+        }
+        if (!bookingRepository.existsByBookerId(userId)) {
             throw new ObjectNotFoundException("The user " + userId + " has no reserved items");
         }
+        List<Booking> bookings;
         if (page.isUnpaged()) {
             bookings = getBookingByStateByUserId(userId, stateName);
         } else {
@@ -117,7 +291,7 @@ public class BookingServiceImpl implements BookingService {
 
     }
 
-    private Page<Booking> getBookingByStateByUserId(Long userId, String stateName, Pageable page) {
+    private Slice<Booking> getBookingByStateByUserId(Long userId, String stateName, Pageable page) {
         LocalDateTime dateTime = LocalDateTime.now();
         try {
             switch (stateName) {
@@ -168,11 +342,13 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingByOwnerId(Long userId, String stateName, Pageable page) {
-        userRepository.existsById(userId);
-        List<Booking> bookings = bookingRepository.getAllByItemOwnerIdOrderByStartDesc(userId);
-        if (bookings.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id= " + userId + " not found.");
+        }
+        if (!bookingRepository.existsByItemOwnerId(userId)) {
             throw new ObjectNotFoundException("The user " + userId + " has no reserved items");
         }
+        List<Booking> bookings;
         if (page.isUnpaged()) {
             bookings = getBookingByStateByOwnerId(userId, stateName);
         } else {
@@ -184,7 +360,7 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
-    private Page<Booking> getBookingByStateByOwnerId(Long userId, String stateName, Pageable page) {
+    private Slice<Booking> getBookingByStateByOwnerId(Long userId, String stateName, Pageable page) {
         LocalDateTime dateTime = LocalDateTime.now();
         try {
             switch (stateName) {
@@ -233,4 +409,97 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidPathVariableException("Unknown state: " + stateName);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingByUserIdAfter(Long userId, String stateName, String after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id= " + userId + " not found.");
+        }
+        if (!bookingRepository.existsByBookerId(userId)) {
+            throw new ObjectNotFoundException("The user " + userId + " has no reserved items");
+        }
+        return getBookingByStateByUserId(userId, stateName, PageCursor.decode(after), PageMaker.makeLimit(size))
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<Booking> getBookingByStateByUserId(Long userId, String stateName, PageCursor cursor,
+                                                    Pageable page) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
+        try {
+            switch (stateName) {
+                case "ALL":
+                    return bookingRepository.findByBookerIdAfterCursor(userId, start, id, page);
+                case "CURRENT":
+                    return bookingRepository.findCurrentBookingsByBookerIdAfterCursor(userId, dateTime, start, id,
+                            page);
+                case "PAST":
+                    return bookingRepository.findByBookerIdAndEndInPastAfterCursor(userId, dateTime, start, id, page);
+                case "FUTURE":
+                    return bookingRepository.findByBookerIdAndStartInFutureAfterCursor(userId, dateTime, start, id,
+                            page);
+                case "WAITING":
+                    return bookingRepository.findByBookerIdAndStatusAfterCursor(userId, BookingStatus.WAITING, start,
+                            id, page);
+                case "REJECTED":
+                    return bookingRepository.findByBookerIdAndStatusAfterCursor(userId, BookingStatus.REJECTED, start,
+                            id, page);
+                default:
+                    throw new StatusBookingException(String.format("Unknown state: %s", stateName));
+            }
+        } catch (IllegalArgumentException iae) {
+            throw new InvalidPathVariableException("Unknown state: " + stateName);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingByOwnerIdAfter(Long userId, String stateName, String after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id= " + userId + " not found.");
+        }
+        if (!bookingRepository.existsByItemOwnerId(userId)) {
+            throw new ObjectNotFoundException("The user " + userId + " has no reserved items");
+        }
+        return getBookingByStateByOwnerId(userId, stateName, PageCursor.decode(after), PageMaker.makeLimit(size))
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<Booking> getBookingByStateByOwnerId(Long userId, String stateName, PageCursor cursor,
+                                                     Pageable page) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
+        try {
+            switch (stateName) {
+                case "ALL":
+                    return bookingRepository.getAllBookingsForOwnersItemsAfterCursor(userId, start, id, page);
+                case "CURRENT":
+                    return bookingRepository.getCurrentBookingsForOwnersItemsAfterCursor(userId, dateTime, start, id,
+                            page);
+                case "PAST":
+                    return bookingRepository.getPastBookingsForOwnersItemsAfterCursor(userId, dateTime, start, id,
+                            page);
+                case "FUTURE":
+                    return bookingRepository.getFutureBookingsForOwnersItemsAfterCursor(userId, dateTime, start, id,
+                            page);
+                case "WAITING":
+                    return bookingRepository.getBookingsForOwnersWithStatusAfterCursor(userId, BookingStatus.WAITING,
+                            start, id, page);
+                case "REJECTED":
+                    return bookingRepository.getBookingsForOwnersWithStatusAfterCursor(userId, BookingStatus.REJECTED,
+                            start, id, page);
+                default:
+                    throw new StatusBookingException(String.format("Unknown state: %s", stateName));
+            }
+        } catch (IllegalArgumentException iae) {
+            throw new InvalidPathVariableException("Unknown state: " + stateName);
+        }
+    }
 }
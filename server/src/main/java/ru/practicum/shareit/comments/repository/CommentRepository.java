@@ -2,12 +2,19 @@ package ru.practicum.shareit.comments.repository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.comments.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "comment_entity-graph")
+    @Query("select c from Comment as c where c.item.id = :id order by c.created desc")
     List<Comment> getByItem_IdOrderByCreatedDesc(Long id);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "comment_entity-graph")
+    @Query("select c from Comment as c where c.item.id in :ids order by c.created desc")
+    List<Comment> getByItem_IdInOrderByCreatedDesc(Collection<Long> ids);
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ObjectValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque {@code after} token for keyset pagination: the sort key of the last row of the previous page.
+ * Bookings are keyed by start date and id, items and requests by id only.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page-After";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    public static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static String encode(LocalDateTime start, Long id) {
+        return encode(start + SEPARATOR + id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new PageCursor(null, Long.valueOf(value));
+            }
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ObjectValidationException("Incorrect page token: " + token);
+        }
+    }
+
+    public LocalDateTime getStart() {
+        if (start == null) {
+            throw new ObjectValidationException("Page token has no start date.");
+        }
+        return start;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -12,6 +12,13 @@ public class PageMaker {
         } else if (from < 0 || size <= 0) {
             throw new InvalidPathVariableException("Incorrect page parameters");
         }
-        return PageRequest.of(from / size, size, Sort.Direction.ASC, "id");
+        return new OffsetPageRequest(from, size, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    public static Pageable makeLimit(Integer size) {
+        if (size == null || size <= 0) {
+            throw new InvalidPathVariableException("Incorrect page parameters");
+        }
+        return PageRequest.of(0, size);
     }
 }
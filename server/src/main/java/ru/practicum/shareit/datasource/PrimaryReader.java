@@ -0,0 +1,28 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads whose result is kept in memory after the request, like the in-memory indexes, on the primary.
+ * A replica may lag behind, and what it misses would stay missing until the process restarts. The read gets
+ * a new read-write transaction, so {@link ReplicaRoutingDataSource} does not route it to a replica even when
+ * it is called from a read-only one. Repository methods alone would not do: they are read-only by default.
+ */
+@Component
+public class PrimaryReader {
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReader(PlatformTransactionManager transactionManager) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T read(Supplier<T> read) {
+        return transactionTemplate.execute(status -> read.get());
+    }
+}
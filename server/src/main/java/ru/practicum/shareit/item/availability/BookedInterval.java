@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dates held by a booking that is not rejected.
+ */
+@Data
+@AllArgsConstructor
+public class BookedInterval {
+    private Long bookingId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree over the bookings of one item: a treap ordered by start where every node keeps the latest end
+ * of its subtree, so a window query skips the subtrees that end before the window. Not thread-safe.
+ */
+class IntervalTree {
+    private static final Comparator<BookedInterval> ORDER = Comparator.comparing(BookedInterval::getStart)
+            .thenComparing(BookedInterval::getBookingId);
+
+    private final Map<Long, BookedInterval> byBookingId = new HashMap<>();
+    private Node root;
+
+    /**
+     * Adds the interval or replaces the one stored for the same booking.
+     */
+    void put(BookedInterval interval) {
+        remove(interval.getBookingId());
+        byBookingId.put(interval.getBookingId(), interval);
+        root = insert(root, new Node(interval, ThreadLocalRandom.current().nextInt()));
+    }
+
+    void remove(Long bookingId) {
+        BookedInterval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+        }
+    }
+
+    int size() {
+        return byBookingId.size();
+    }
+
+    /**
+     * @return intervals that overlap [from, to), ordered by start
+     */
+    List<BookedInterval> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookedInterval> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<BookedInterval> result) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (!node.interval.getStart().isBefore(to)) {
+            return;
+        }
+        if (node.interval.getEnd().isAfter(from)) {
+            result.add(node.interval);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (ORDER.compare(added.interval, node.interval) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, BookedInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int order = ORDER.compare(interval, node.interval);
+        if (order < 0) {
+            node.left = delete(node.left, interval);
+        } else if (order > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        private final BookedInterval interval;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(BookedInterval interval, int priority) {
+            this.interval = interval;
+            this.priority = priority;
+            this.maxEnd = interval.getEnd();
+        }
+    }
+}
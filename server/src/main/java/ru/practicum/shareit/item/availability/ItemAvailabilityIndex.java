@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReader;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory {@link IntervalTree} of the non-rejected bookings per item, used by {@code /items/{itemId}/availability}.
+ * The tree of an item is loaded from {@link BookingRepository} on its first query and then kept up to date by
+ * {@link #index(Booking)}, so later queries do not touch the database. Like the search index it only sees
+ * bookings made through this server instance after loading, so the load reads the primary, not a replica.
+ * <p>
+ * At most {@code shareit.availability.max-items} trees are kept. A tree is dropped
+ * {@code shareit.availability.expire-after-write} after it was loaded, however often it is queried, and loaded
+ * again on its next query; that bounds how long bookings made through another instance stay unseen.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final PrimaryReader primaryReader;
+    private final Cache<Long, ItemBookings> items;
+
+    @Autowired
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 ItemRepository itemRepository,
+                                 PrimaryReader primaryReader,
+                                 @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                 @Value("${shareit.availability.expire-after-write:30m}") Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this(bookingRepository, itemRepository, primaryReader, maxItems, expireAfterWrite, meterRegistry,
+                Ticker.systemTicker());
+    }
+
+    ItemAvailabilityIndex(BookingRepository bookingRepository,
+                          ItemRepository itemRepository,
+                          PrimaryReader primaryReader,
+                          long maxItems,
+                          Duration expireAfterWrite,
+                          MeterRegistry meterRegistry,
+                          Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.primaryReader = primaryReader;
+        this.items = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .recordStats()
+                .<Long, ItemBookings>build(), "item-availability");
+    }
+
+    /**
+     * @return bookings of the item that overlap [from, to), ordered by start
+     * @throws ObjectNotFoundException if the item does not exist, nothing is kept for it then
+     */
+    public List<BookedInterval> findBooked(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemBookings bookings = items.getIfPresent(itemId);
+        if (bookings == null) {
+            if (!primaryReader.read(() -> itemRepository.existsById(itemId))) {
+                throw new ObjectNotFoundException("Item with id=" + itemId + " not found.");
+            }
+            bookings = items.get(itemId, id -> new ItemBookings());
+        }
+        bookings.lock.lock();
+        try {
+            if (bookings.tree == null) {
+                IntervalTree tree = new IntervalTree();
+                primaryReader.read(() -> bookingRepository.findBookedIntervalsByItemId(itemId,
+                        BookingStatus.REJECTED)).forEach(tree::put);
+                bookings.tree = tree;
+            }
+            return bookings.tree.findOverlapping(from, to);
+        } finally {
+            bookings.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds, moves or, for a rejected booking, removes its interval once the surrounding transaction commits.
+     */
+    public void index(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookedInterval interval = new BookedInterval(booking.getId(), booking.getStart(), booking.getEnd());
+        boolean rejected = booking.getStatus() == BookingStatus.REJECTED;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, interval, rejected);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(itemId, interval, rejected);
+            }
+        });
+    }
+
+    private void apply(Long itemId, BookedInterval interval, boolean rejected) {
+        ItemBookings bookings = items.getIfPresent(itemId);
+        if (bookings == null) {
+            // Not queried yet or dropped, the next query reads the committed booking from the database.
+            return;
+        }
+        bookings.lock.lock();
+        try {
+            if (bookings.tree == null) {
+                return;
+            }
+            if (rejected) {
+                bookings.tree.remove(interval.getBookingId());
+            } else {
+                bookings.tree.put(interval);
+            }
+        } finally {
+            bookings.lock.unlock();
+        }
+    }
+
+    private static class ItemBookings {
+        private final ReentrantLock lock = new ReentrantLock();
+        private IntervalTree tree;
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.controller;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,12 +13,17 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.common.PageMaker;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlBudget;
 import ru.practicum.shareit.comments.CommentDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -44,6 +50,7 @@ public class ItemController {
     }
 
     @GetMapping(value = "/{itemId}")
+    @SqlBudget(4)
     public ItemDtoWithBooking getById(@RequestHeader("X-Sharer-User-Id") long userId,
                                       @PathVariable long itemId) {
         log.info("Get item id={}", itemId);
@@ -51,15 +58,27 @@ public class ItemController {
     }
 
     @GetMapping
+    @SqlBudget(5)
     public List<ItemDtoWithBooking> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                    @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) String after,
+                                                   HttpServletResponse response) {
         log.info("Get all items user={}", userId);
-        Pageable page = PageMaker.makePageableWithSort(from, size);
-        return itemService.getItemsByUser(userId, page);
+        List<ItemDtoWithBooking> items;
+        if (after == null) {
+            items = itemService.getItemsByUser(userId, PageMaker.makePageableWithSort(from, size));
+        } else {
+            items = itemService.getItemsByUserAfter(userId, after, size);
+        }
+        if (items.size() == size) {
+            response.setHeader(PageCursor.NEXT_PAGE_HEADER, PageCursor.encode(items.get(items.size() - 1).getId()));
+        }
+        return items;
     }
 
     @GetMapping("/search")
+    @SqlBudget(1)
     public List<ItemDto> searchItemByQuery(@RequestHeader("X-Sharer-User-Id") Long userId,
                                            @RequestParam String text,
                                            @RequestParam(defaultValue = "0") int from,
@@ -69,6 +88,18 @@ public class ItemController {
         return itemService.searchItemByQuery(userId, text, page);
     }
 
+    @GetMapping("/{itemId}/availability")
+    @SqlBudget(2)
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        log.info("Get availability of item {} from {} to {} by user {}", itemId, from, to, userId);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long itemId,
@@ -1,19 +1,27 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Query("select i from Item as i where i.owner.id = :userId order by i.id")
     Collection<Item> findByOwnerIdOrderByIdAsc(Long userId);
 
-    Page<Item> findByOwnerIdOrderByIdAsc(Long userId, Pageable page);
+    @Query("select i from Item as i where i.owner.id = :userId order by i.id")
+    Slice<Item> findByOwnerIdOrderByIdAsc(Long userId, Pageable page);
+
+    @Query("select i from Item as i where i.owner.id = :userId and i.id > :id order by i.id")
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable page);
 
     @Query("select i from Item as i " +
             "where i.available = true " +
@@ -25,7 +33,24 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', :query,'%')) " +
             "or upper(i.description) like upper(concat('%',:query,'%')))")
-    Page<Item> searchByQuery(String query, Pageable page);
+    Slice<Item> searchByQuery(String query, Pageable page);
 
     List<Item> findByRequestId(Long id);
+
+    List<Item> findByRequestIdIn(Collection<Long> ids);
+
+    /**
+     * Locks the item row until the end of the transaction, so that bookings of one item are checked for
+     * overlaps one at a time, also across server instances.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = :id")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    /**
+     * Locks the rows of several items in id order, so that two batches locking the same items cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id in :ids order by i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> ids);
 }
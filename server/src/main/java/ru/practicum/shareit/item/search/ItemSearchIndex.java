@@ -0,0 +1,320 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.datasource.PrimaryReader;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory Lucene index over item names and descriptions used by {@code /items/search}.
+ * It finds the same items as the {@code like '%text%'} query in {@link ItemRepository}: the whole text, spaces
+ * and punctuation included, has to be a part of the name or of the description, case aside. Names and
+ * descriptions are indexed as character trigrams with their positions, and the text is looked up as a phrase
+ * of its trigrams, so they have to follow each other as in the text. Results are ranked by relevance, whole
+ * words first, with the item id as a tie-breaker, so pages stay stable.
+ * <p>
+ * A text shorter than a trigram is left to the {@code like} query, see {@link #canSearch(String)}. Set
+ * {@code shareit.search.engine=jpa} to always use the {@code like} query; it is also used until the index is
+ * built at startup.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String NAME_GRAMS = "name_grams";
+    private static final String DESCRIPTION_GRAMS = "description_grams";
+    private static final int GRAM = 3;
+    private static final String AVAILABLE = "available";
+    private static final float NAME_BOOST = 2f;
+    private static final float EXACT_TERM_BOOST = 4f;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Sort RELEVANCE_ORDER =
+            new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final ItemRepository itemRepository;
+    private final PrimaryReader primaryReader;
+    private final boolean enabled;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Analyzer gramAnalyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new NGramTokenizer(GRAM, GRAM);
+            return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+        }
+    };
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+    /**
+     * Items written by {@link #index(Item)} while the index was being built. The rebuild may have read them before
+     * that write, so it leaves them alone. Guarded by itself.
+     */
+    private final Set<Long> indexedDuringRebuild = new HashSet<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository, PrimaryReader primaryReader,
+                           @Value("${shareit.search.engine:lucene}") String engine) {
+        this.itemRepository = itemRepository;
+        this.primaryReader = primaryReader;
+        this.enabled = "lucene".equalsIgnoreCase(engine);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether the index holds every item, until then searches have to go to the database
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * @return whether the index is ready and the text is at least a trigram long, otherwise the search has to
+     * go to the database
+     */
+    public boolean canSearch(String text) {
+        return isReady() && text.codePointCount(0, text.length()) >= GRAM;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Analyzer fieldAnalyzer = new PerFieldAnalyzerWrapper(analyzer,
+                Map.of(NAME_GRAMS, gramAnalyzer, DESCRIPTION_GRAMS, gramAnalyzer));
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(fieldAnalyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Indexes every item, reading them page by page from the primary.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        int indexed = 0;
+        Page<Item> items;
+        int pageNumber = 0;
+        do {
+            PageRequest page = PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE, Direction.ASC, ID);
+            items = primaryReader.read(() -> itemRepository.findAll(page));
+            for (Item item : items) {
+                synchronized (indexedDuringRebuild) {
+                    if (!indexedDuringRebuild.contains(item.getId())) {
+                        write(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+                    }
+                }
+                indexed++;
+            }
+        } while (items.hasNext());
+        refresh();
+        synchronized (indexedDuringRebuild) {
+            ready = true;
+            indexedDuringRebuild.clear();
+        }
+        log.info("Item search index built, {} items", indexed);
+    }
+
+    /**
+     * Adds or replaces the item in the index once the surrounding transaction commits.
+     */
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeCommitted(id, name, description, available);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writeCommitted(id, name, description, available);
+            }
+        });
+    }
+
+    private void writeCommitted(Long id, String name, String description, Boolean available) {
+        synchronized (indexedDuringRebuild) {
+            if (!ready) {
+                indexedDuringRebuild.add(id);
+            }
+            write(id, name, description, available);
+        }
+        refresh();
+    }
+
+    /**
+     * Returns ids of available items whose name or description contains the text, best matches first.
+     * A text shorter than a trigram matches nothing.
+     */
+    public List<Long> search(String text, Pageable page) {
+        List<Long> ids = new ArrayList<>();
+        Query query = buildQuery(text);
+        if (query == null) {
+            return ids;
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = page.isUnpaged() ? 0 : (int) page.getOffset();
+                int limit = page.isUnpaged()
+                        ? Math.max(1, searcher.getIndexReader().numDocs())
+                        : offset + page.getPageSize();
+                TopDocs topDocs = searcher.search(query, limit, RELEVANCE_ORDER);
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                for (int i = offset; i < hits.length; i++) {
+                    ids.add(Long.valueOf(searcher.doc(hits[i].doc).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        searcherManager.close();
+        writer.close();
+    }
+
+    private Query buildQuery(String text) {
+        List<String> grams = analyze(gramAnalyzer, NAME_GRAMS, text);
+        if (grams.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(AVAILABLE, Boolean.TRUE.toString())), BooleanClause.Occur.FILTER)
+                .add(new BooleanQuery.Builder()
+                        .add(new BoostQuery(partQuery(NAME_GRAMS, grams), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                        .add(partQuery(DESCRIPTION_GRAMS, grams), BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.MUST);
+        for (String word : analyze(analyzer, DESCRIPTION, text)) {
+            query.add(new BoostQuery(new TermQuery(new Term(NAME, word)), NAME_BOOST * EXACT_TERM_BOOST),
+                    BooleanClause.Occur.SHOULD);
+            query.add(new BoostQuery(new TermQuery(new Term(DESCRIPTION, word)), EXACT_TERM_BOOST),
+                    BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    /**
+     * Matches fields containing the text: every trigram sits at the position of its first character, so the
+     * trigrams starting at 0, {@link #GRAM}, 2 * {@link #GRAM}... and the last one, at their offsets from each
+     * other, cover the whole text.
+     */
+    private Query partQuery(String gramField, List<String> grams) {
+        PhraseQuery.Builder phrase = new PhraseQuery.Builder();
+        int last = grams.size() - 1;
+        for (int position = 0; position < last; position += GRAM) {
+            phrase.add(new Term(gramField, grams.get(position)), position);
+        }
+        phrase.add(new Term(gramField, grams.get(last)), last);
+        return phrase.build();
+    }
+
+    private List<String> analyze(Analyzer fieldAnalyzer, String field, String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = fieldAnalyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private void write(Long id, String name, String description, Boolean available) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_SORT, id));
+        document.add(new TextField(NAME, name == null ? "" : name, Field.Store.NO));
+        document.add(new TextField(NAME_GRAMS, name == null ? "" : name, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, description == null ? "" : description, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION_GRAMS, description == null ? "" : description, Field.Store.NO));
+        document.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(available)), Field.Store.NO));
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.comments.CommentDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,7 +18,11 @@ public interface ItemService {
 
     List<ItemDtoWithBooking> getItemsByUser(Long userId, Pageable page);
 
+    List<ItemDtoWithBooking> getItemsByUserAfter(Long userId, String after, int size);
+
     List<ItemDto> searchItemByQuery(Long userId, String text, Pageable page);
 
+    ItemAvailabilityDto getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
@@ -7,14 +7,20 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ObjectValidationException;
+import ru.practicum.shareit.item.availability.BookedInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapperWithBooking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.comments.CommentDto;
 import ru.practicum.shareit.comments.mapper.CommentMapper;
 import ru.practicum.shareit.comments.model.Comment;
@@ -24,11 +30,16 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemDto;
 
 @Service
@@ -39,6 +50,8 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     @Transactional
@@ -56,7 +69,9 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ObjectNotFoundException("User with id= " + userId + " not found."));
         Item item = ItemMapper.toItem(itemDto, user);
         item.setOwner(user);
-        return toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return toItemDto(savedItem);
     }
 
     @Override
@@ -79,7 +94,9 @@ public class ItemServiceImpl implements ItemService {
         if (user != null && !updatedItem.getOwner().getId().equals(userId)) {
             throw new ObjectNotFoundException("User with id=" + userId + " not found.");
         }
-        return toItemDto(itemRepository.save(updatedItem));
+        Item savedItem = itemRepository.save(updatedItem);
+        itemSearchIndex.index(savedItem);
+        return toItemDto(savedItem);
     }
 
     @Override
@@ -89,12 +106,10 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ObjectNotFoundException("Item with id=" + itemId + " not found."));
         List<Comment> comments = getReviewsByItemId(item);
         if (item.getOwner().getId().equals(userId)) {
-            Booking lastBooking =
-                    bookingRepository.getFirstByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(itemId,
-                            BookingStatus.REJECTED, LocalDateTime.now());
-            Booking nextBooking =
-                    bookingRepository.getFirstByItemIdAndStatusNotAndStartAfterOrderByStart(itemId,
-                            BookingStatus.REJECTED, LocalDateTime.now());
+            Booking lastBooking = bookingRepository.findLastBookingsByItemId(itemId, BookingStatus.REJECTED,
+                    LocalDateTime.now(), PageMaker.makeLimit(1)).stream().findFirst().orElse(null);
+            Booking nextBooking = bookingRepository.findNextBookingsByItemId(itemId, BookingStatus.REJECTED,
+                    LocalDateTime.now(), PageMaker.makeLimit(1)).stream().findFirst().orElse(null);
             return ItemMapperWithBooking.toItemDtoWithBooking(comments, lastBooking, nextBooking, item);
         } else
             return ItemMapperWithBooking.toItemDtoWithBooking(comments, null, null, item);
@@ -105,20 +120,47 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDtoWithBooking> getItemsByUser(Long userId, Pageable page) {
         LocalDateTime dateTime = LocalDateTime.now();
         userRepository.existsById(userId);
-        Stream<Item> items;
+        List<Item> items;
         if (page.isUnpaged()) {
-            items = itemRepository.findByOwnerIdOrderByIdAsc(userId).stream();
+            items = new ArrayList<>(itemRepository.findByOwnerIdOrderByIdAsc(userId));
         } else {
-            items = itemRepository.findByOwnerIdOrderByIdAsc(userId, page).get();
-        }
-        return items.map(item -> {
-                    List<Comment> comments = getReviewsByItemId(item);
-                    Booking lastBooking =
-                            bookingRepository.getFirstByItemIdAndEndBeforeOrderByEndDesc(item.getId(), dateTime);
-                    Booking nextBooking =
-                            bookingRepository.getTopByItemIdAndStartAfterOrderByStartAsc(item.getId(), dateTime);
-                    return ItemMapperWithBooking.toItemDtoWithBooking(comments, lastBooking, nextBooking, item);
-                })
+            items = itemRepository.findByOwnerIdOrderByIdAsc(userId, page).getContent();
+        }
+        return toItemDtosWithBooking(items, dateTime);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDtoWithBooking> getItemsByUserAfter(Long userId, String after, int size) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id=" + userId + " not found.");
+        }
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(userId,
+                PageCursor.decode(after).getId(), PageMaker.makeLimit(size));
+        return toItemDtosWithBooking(items, dateTime);
+    }
+
+    private List<ItemDtoWithBooking> toItemDtosWithBooking(List<Item> items, LocalDateTime dateTime) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(toList());
+        Map<Long, List<Comment>> comments = commentRepository.getByItem_IdInOrderByCreatedDesc(itemIds)
+                .stream()
+                .collect(groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, Booking> lastBookings =
+                groupByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, dateTime));
+        Map<Long, Booking> nextBookings =
+                groupByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, dateTime));
+        return items.stream()
+                .map(item -> ItemMapperWithBooking.toItemDtoWithBooking(
+                        comments.getOrDefault(item.getId(), Collections.emptyList()),
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        item))
                 .collect(toList());
     }
 
@@ -129,6 +171,17 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         userRepository.existsById(userId);
+        if (itemSearchIndex.canSearch(text)) {
+            List<Long> itemIds = itemSearchIndex.search(text, page);
+            Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                    .stream()
+                    .collect(toMap(Item::getId, Function.identity()));
+            return itemIds.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
         if (page.isUnpaged()) {
             return itemRepository.searchByQuery(text)
                     .stream()
@@ -142,6 +195,46 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public ItemAvailabilityDto getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ObjectValidationException("The start of the period must be before the end.");
+        }
+        // No transaction: the index checks that the item exists and loads its bookings on the primary itself,
+        // so a warm request does not touch the database.
+        List<ItemAvailabilityDto.Interval> busy = new ArrayList<>();
+        List<ItemAvailabilityDto.Interval> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookedInterval booked : itemAvailabilityIndex.findBooked(itemId, from, to)) {
+            LocalDateTime start = booked.getStart().isBefore(from) ? from : booked.getStart();
+            LocalDateTime end = booked.getEnd().isAfter(to) ? to : booked.getEnd();
+            if (start.isAfter(cursor)) {
+                free.add(new ItemAvailabilityDto.Interval(cursor, start));
+            }
+            ItemAvailabilityDto.Interval last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new ItemAvailabilityDto.Interval(start, end));
+            }
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new ItemAvailabilityDto.Interval(cursor, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(free)
+                .busy(busy)
+                .build();
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -166,4 +259,10 @@ public class ItemServiceImpl implements ItemService {
     private List<Comment> getReviewsByItemId(Item item) {
         return commentRepository.getByItem_IdOrderByCreatedDesc(item.getId());
     }
+
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
 }
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.util.Arrays;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans as {@code shareit.service}, tagged with
+ * the service, the method, the booking state and the kind of paging. Runs outside the transaction,
+ * so the time includes the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String TIMER = "shareit.service";
+
+    private static final String NONE = "none";
+    private static final String STATE_PARAMETER = "stateName";
+    private static final String CURSOR_PARAMETER = "after";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .tag("service", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", state(signature, joinPoint.getArgs()))
+                    .tag("paging", paging(signature, joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Unknown states are reported as {@code INVALID} to keep the number of time series bounded.
+     */
+    private static String state(MethodSignature signature, Object[] args) {
+        int index = Arrays.asList(signature.getParameterNames()).indexOf(STATE_PARAMETER);
+        if (index < 0) {
+            return NONE;
+        }
+        String state = String.valueOf(args[index]);
+        return Arrays.stream(BookingState.values()).anyMatch(value -> value.name().equals(state)) ? state : "INVALID";
+    }
+
+    private static String paging(MethodSignature signature, Object[] args) {
+        if (Arrays.asList(signature.getParameterNames()).contains(CURSOR_PARAMETER)) {
+            return "cursor";
+        }
+        for (Object arg : args) {
+            if (arg instanceof Pageable) {
+                return ((Pageable) arg).isPaged() ? "offset" : "unpaged";
+            }
+        }
+        return NONE;
+    }
+}
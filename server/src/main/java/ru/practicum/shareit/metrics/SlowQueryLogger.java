@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements that take at least {@code shareit.sql.slow-query-threshold}. Everything faster is not logged.
+ */
+@Component
+@Slf4j
+public class SlowQueryLogger implements QueryExecutionListener {
+    private final long thresholdMillis;
+
+    public SlowQueryLogger(@Value("${shareit.sql.slow-query-threshold:500ms}") Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        log.warn("Slow query took {} ms{}: {}", execInfo.getElapsedTime(),
+                execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                queryInfoList.stream()
+                        .map(QueryInfo::getQuery)
+                        .collect(Collectors.joining("; ")));
+    }
+}
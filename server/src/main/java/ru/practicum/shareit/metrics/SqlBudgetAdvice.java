@@ -0,0 +1,54 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.exception.SqlBudgetExceededException;
+
+import java.util.Objects;
+
+/**
+ * Checks the {@link SqlBudget} of the handler right before its body is written, while the response can still
+ * be turned into an error. Going over is logged, or fails the request when {@code shareit.sql.budget.enforce=true}.
+ */
+@ControllerAdvice
+@Slf4j
+public class SqlBudgetAdvice implements ResponseBodyAdvice<Object> {
+    private final SqlStatementCounter counter;
+    private final boolean enforceBudget;
+
+    public SqlBudgetAdvice(SqlStatementCounter counter,
+                           @Value("${shareit.sql.budget.enforce:false}") boolean enforceBudget) {
+        this.counter = counter;
+        this.enforceBudget = enforceBudget;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SqlBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int budget = Objects.requireNonNull(returnType.getMethodAnnotation(SqlBudget.class)).value();
+        int statements = counter.currentStatements();
+        if (statements <= budget) {
+            return body;
+        }
+        String message = String.format("%s %s ran %d SQL statements, its budget is %d", request.getMethod(),
+                request.getURI().getPath(), statements, budget);
+        if (enforceBudget) {
+            throw new SqlBudgetExceededException(message);
+        }
+        log.warn(message);
+        return body;
+    }
+}
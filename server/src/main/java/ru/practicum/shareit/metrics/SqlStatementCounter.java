@@ -0,0 +1,68 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and {@link #stop()}
+ * and the time they took. A JDBC batch counts as one statement. Statements outside such a window are not counted.
+ */
+@Component
+public class SqlStatementCounter implements QueryExecutionListener {
+    private static final ThreadLocal<SqlStatistics> STATISTICS = new ThreadLocal<>();
+
+    public void start() {
+        STATISTICS.set(new SqlStatistics());
+    }
+
+    /**
+     * @return statements counted on this thread so far, 0 if counting was not started
+     */
+    public int currentStatements() {
+        SqlStatistics statistics = STATISTICS.get();
+        return statistics == null ? 0 : statistics.getStatements();
+    }
+
+    /**
+     * @return statements counted since {@link #start()}, empty if counting was not started
+     */
+    public SqlStatistics stop() {
+        SqlStatistics statistics = STATISTICS.get();
+        STATISTICS.remove();
+        return statistics == null ? new SqlStatistics() : statistics;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = STATISTICS.get();
+        if (statistics != null) {
+            statistics.add(execInfo.getElapsedTime());
+        }
+    }
+
+    public static class SqlStatistics {
+        private int statements;
+        private long millis;
+
+        private void add(long elapsedMillis) {
+            statements++;
+            millis += elapsedMillis;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the number of SQL statements each HTTP request runs as {@code shareit.http.sql.statements} and their
+ * total time as {@code shareit.http.sql.time}, tagged like {@code http.server.requests}, so that an N+1
+ * regression shows up as a jump per endpoint. The statements are counted for {@link SqlBudgetAdvice}, which
+ * checks the {@link SqlBudget} of the handler before the response is written.
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    static final String SUMMARY = "shareit.http.sql.statements";
+    static final String TIMER = "shareit.http.sql.time";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.SqlStatistics statistics = counter.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(),
+                    "uri", uri == null ? "UNKNOWN" : uri.toString(),
+                    "status", String.valueOf(response.getStatus()));
+            DistributionSummary.builder(SUMMARY)
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statistics.getStatements());
+            Timer.builder(TIMER)
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statistics.getMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,10 +10,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.common.PageMaker;
+import ru.practicum.shareit.metrics.SqlBudget;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -34,21 +36,35 @@ public class ItemRequestController {
     }
 
     @GetMapping
+    @SqlBudget(3)
     public List<ItemRequestDto> getRequestsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get requests by user {}", userId);
         return requestService.getRequestsByOwner(userId);
     }
 
     @GetMapping("/all")
+    @SqlBudget(3)
     public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "10") int size) {
+                                               @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false) String after,
+                                               HttpServletResponse response) {
         log.info("Get requests by user page by page {}", userId);
-        Pageable page = PageMaker.makePageableWithSort(from, size);
-        return requestService.getAllRequests(userId, page);
+        List<ItemRequestDto> requests;
+        if (after == null) {
+            requests = requestService.getAllRequests(userId, PageMaker.makePageableWithSort(from, size));
+        } else {
+            requests = requestService.getAllRequestsAfter(userId, after, size);
+        }
+        if (requests.size() == size) {
+            response.setHeader(PageCursor.NEXT_PAGE_HEADER,
+                    PageCursor.encode(requests.get(requests.size() - 1).getId()));
+        }
+        return requests;
     }
 
     @GetMapping("/{requestId}")
+    @SqlBudget(3)
     public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable Long requestId) {
         log.info("Get request by requestId {} from user {}", requestId, userId);
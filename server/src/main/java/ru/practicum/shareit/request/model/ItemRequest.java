@@ -16,6 +16,8 @@ import javax.persistence.Column;
 import javax.persistence.ManyToOne;
 import javax.persistence.JoinColumn;
 import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -26,6 +28,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "requests")
 @Builder
+@NamedEntityGraph(name = "request_entity-graph", attributeNodes = @NamedAttributeNode("requester"))
 public class ItemRequest {
 
     @Id
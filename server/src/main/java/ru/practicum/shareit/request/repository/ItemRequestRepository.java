@@ -1,16 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    Page<ItemRequest> findByRequesterIdNot(Long userId, Pageable page);
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "request_entity-graph")
+    @Query("select r from ItemRequest as r where r.requester.id <> :userId")
+    Slice<ItemRequest> findByRequesterIdNot(Long userId, Pageable page);
 
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "request_entity-graph")
+    @Query("select r from ItemRequest as r where r.requester.id <> :userId and r.id > :id order by r.id")
+    List<ItemRequest> findByRequesterIdNotAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable page);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "request_entity-graph")
+    @Query("select r from ItemRequest as r where r.requester.id = :userId")
     List<ItemRequest> findAllByRequesterId(Long userId, Sort created);
 }
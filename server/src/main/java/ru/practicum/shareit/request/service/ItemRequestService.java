@@ -13,5 +13,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(Long userId, Pageable page);
 
+    List<ItemRequestDto> getAllRequestsAfter(Long userId, String after, int size);
+
     ItemRequestDto getRequestById(Long userId, Long requestId);
 }
@@ -5,8 +5,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -18,6 +21,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
@@ -48,10 +52,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
         List<ItemRequest> requests = requestRepository.findAllByRequesterId(userId,
                 Sort.by(DESC, "created"));
-        return requests.stream()
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
-                        ItemMapper.toItemDto(itemRepository.findByRequestId(itemRequest.getRequester().getId()))))
-                .collect(Collectors.toList());
+        return toItemRequestDtosWithItems(requests);
     }
 
     @Override
@@ -61,20 +62,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         if (page.isUnpaged()) {
             List<ItemRequest> requests = requestRepository.findAllByRequesterId(userId,
                     Sort.by(DESC, "created"));
-            return requests
-                    .stream()
-                    .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
-                            ItemMapper.toItemDto(itemRepository.findByRequestId(itemRequest.getRequester().getId()))))
-                    .collect(Collectors.toList());
+            return toItemRequestDtosWithItems(requests);
         } else {
-            return requestRepository.findByRequesterIdNot(userId, page)
-                    .stream()
-                    .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
-                            ItemMapper.toItemDto(itemRepository.findByRequestId(itemRequest.getRequester().getId()))))
-                    .collect(Collectors.toList());
+            return toItemRequestDtosWithItems(requestRepository.findByRequesterIdNot(userId, page).getContent());
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllRequestsAfter(Long userId, String after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException("User with id= " + userId + " not found.");
+        }
+        return toItemRequestDtosWithItems(requestRepository.findByRequesterIdNotAndIdGreaterThanOrderByIdAsc(userId,
+                PageCursor.decode(after).getId(), PageMaker.makeLimit(size)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
@@ -84,6 +87,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new ObjectNotFoundException("Request with id= " + requestId + " not found."));
         return ItemRequestMapper.toItemRequestDto(itemRequest,
-                ItemMapper.toItemDto(itemRepository.findByRequestId(itemRequest.getRequester().getId())));
+                ItemMapper.toItemDto(itemRepository.findByRequestId(itemRequest.getId())));
+    }
+
+    private List<ItemRequestDto> toItemRequestDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return requests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
+                        ItemMapper.toItemDto(itemsByRequestId.getOrDefault(itemRequest.getId(), List.of()))))
+                .collect(Collectors.toList());
     }
 }
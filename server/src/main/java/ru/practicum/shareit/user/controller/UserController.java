@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.metrics.SqlBudget;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
@@ -27,15 +28,18 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/{userId}")
+    @SqlBudget(1)
     public UserDto get(@PathVariable long userId) {
         log.info("Get user id={}", userId);
         return userService.getUser(userId);
     }
 
     @GetMapping
+    @SqlBudget(1)
     public List<UserDto> getAll() {
-        log.info("Get all users = ", userService.getAllUsers().size());
-        return userService.getAllUsers();
+        List<UserDto> users = userService.getAllUsers();
+        log.info("Get all users = {}", users.size());
+        return users;
     }
 
     @PostMapping
@@ -69,4 +69,13 @@ create table if not exists comments(
 );
 
 --alter table comments owner to shareit;
-alter table comments add owner bigint;
\ No newline at end of file
+alter table comments add owner bigint;
+
+create index if not exists booking_booker_start_idx on booking (booker_id, start_date);
+create index if not exists booking_booker_status_start_idx on booking (booker_id, status, start_date);
+create index if not exists booking_item_start_idx on booking (item_id, start_date);
+create index if not exists booking_item_end_idx on booking (item_id, end_date);
+create index if not exists items_owner_idx on items (owner_id);
+create index if not exists items_request_idx on items (request_id);
+create index if not exists comments_item_created_idx on comments (item_id, created_date);
+create index if not exists requests_requester_created_idx on requests (requester_id, created_date);
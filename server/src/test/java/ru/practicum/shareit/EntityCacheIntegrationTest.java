@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheIntegrationTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UserDto owner;
+
+    @BeforeEach
+    void createOwner() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.createUser(new UserDto(null, "Galina", "galina@mail.ru"));
+    }
+
+    @AfterEach
+    void deleteData() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUser_shouldBeServedFromCacheUntilUserIsUpdatedOrDeleted() {
+        userService.getUser(owner.getId());
+
+        statistics.clear();
+        userService.getUser(owner.getId());
+        userService.getUser(owner.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Both lookups are expected to hit the cache.");
+        assertEquals(2, statistics.getDomainDataRegionStatistics("users").getHitCount());
+
+        userService.updateUser(new UserDto(null, "Galina Petrovna", null), owner.getId());
+        assertEquals("Galina Petrovna", userService.getUser(owner.getId()).getName());
+
+        userService.deleteUser(owner.getId());
+        assertThrows(ObjectNotFoundException.class, () -> userService.getUser(owner.getId()));
+    }
+
+    @Test
+    void findItem_shouldSeeUpdatedItem() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Drill");
+        itemDto.setDescription("Cordless drill");
+        itemDto.setAvailable(true);
+        Long itemId = itemService.createItem(itemDto, owner.getId()).getId();
+
+        itemRepository.findById(itemId);
+
+        statistics.clear();
+        assertEquals("Drill", itemRepository.findById(itemId).orElseThrow().getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("items").getHitCount());
+
+        ItemDto update = new ItemDto();
+        update.setName("Hammer drill");
+        itemService.updateItem(update, owner.getId(), itemId);
+
+        assertEquals("Hammer drill", itemRepository.findById(itemId).orElseThrow().getName());
+    }
+
+    @Test
+    void cacheRequests_shouldBeExposedAsMetrics() {
+        userService.getUser(owner.getId());
+        userService.getUser(owner.getId());
+
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "hit")
+                .functionCounter()
+                .count() > 0);
+    }
+}
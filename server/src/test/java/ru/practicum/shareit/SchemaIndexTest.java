@@ -0,0 +1,353 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comments.repository.CommentRepository;
+import ru.practicum.shareit.common.PageMaker;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot repository methods over seeded tables, captures the SQL that Hibernate generates for them and checks
+ * that the plan of each statement uses the index meant for it and no full scan. A changed query is checked as it is,
+ * not a copy of it.
+ */
+@SpringBootTest
+public class SchemaIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final Pageable PAGE = PageMaker.makePageableWithSort(0, 10);
+    private static final Pageable LIMIT = PageMaker.makeLimit(10);
+    /**
+     * Seeded rows get ids from here on, clear of the rows other tests create through the identity columns.
+     */
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int USERS = 100;
+    private static final int OWNERS = 20;
+    private static final int REQUESTS = 500;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+    private static final int COMMENTS = 3_000;
+    private static final long OWNER_ID = FIRST_ID;
+    private static final long BOOKER_ID = FIRST_ID + OWNERS;
+    private static final long ITEM_ID = FIRST_ID;
+    private static final List<Long> ITEM_IDS = List.of(FIRST_ID, FIRST_ID + 1);
+    private static final List<Long> REQUEST_IDS = List.of(FIRST_ID, FIRST_ID + 2);
+
+    private static final String BOOKER_START = "BOOKING_BOOKER_START_IDX";
+    private static final String BOOKER_STATUS_START = "BOOKING_BOOKER_STATUS_START_IDX";
+    private static final String ITEM_START = "BOOKING_ITEM_START_IDX";
+    private static final String ITEM_END = "BOOKING_ITEM_END_IDX";
+    private static final String ITEMS_OWNER = "ITEMS_OWNER_IDX";
+    private static final String ITEMS_REQUEST = "ITEMS_REQUEST_IDX";
+    private static final String ITEMS_PRIMARY_KEY = "ITEMS_PK";
+    private static final String COMMENTS_ITEM_CREATED = "COMMENTS_ITEM_CREATED_IDX";
+    private static final String REQUESTS_REQUESTER_CREATED = "REQUESTS_REQUESTER_CREATED_IDX";
+    private static final String REQUESTS_PRIMARY_KEY = "REQUESTS_PK";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private StatementCapture statementCapture;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    /**
+     * H2 indexes every foreign key column on its own and prefers those indexes, Postgres does not have them. The
+     * foreign keys are dropped while the test runs, so the plans only see the indexes schema.sql declares.
+     * Table, constraint, column and referenced table of each.
+     */
+    private static final List<List<String>> FOREIGN_KEYS = List.of(
+            List.of("requests", "requests_users_id_fk", "requester_id", "users"),
+            List.of("items", "items_users_id_fk", "owner_id", "users"),
+            List.of("items", "items_requests_id_fk", "request_id", "requests"),
+            List.of("booking", "booking_items_id_fk", "item_id", "items"),
+            List.of("booking", "booking_users_id_fk", "booker_id", "users"),
+            List.of("comments", "comments_items_id_fk", "item_id", "items"),
+            List.of("comments", "comments_users_id_fk", "user_id", "users"));
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        for (List<String> foreignKey : FOREIGN_KEYS) {
+            jdbcTemplate.execute("alter table " + foreignKey.get(0) + " drop constraint " + foreignKey.get(1));
+        }
+        List<Object[]> users = new ArrayList<>();
+        for (long id = FIRST_ID; id < FIRST_ID + USERS; id++) {
+            users.add(new Object[]{id, "User " + id, "user" + id + "@schema-index.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Object[]{FIRST_ID + i, "Request " + i, FIRST_ID + i % USERS,
+                    Timestamp.valueOf(NOW.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requester_id, created_date)" +
+                " values (?, ?, ?, ?)", requests);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{FIRST_ID + i, "Item " + i, "Description " + i, FIRST_ID + i % OWNERS,
+                    i % 2 == 0 ? FIRST_ID + i % REQUESTS : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request_id)" +
+                " values (?, ?, ?, true, ?, ?)", items);
+        List<Object[]> bookings = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = NOW.minusDays(BOOKINGS / 2).plusDays(i);
+            bookings.add(new Object[]{FIRST_ID + i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                    FIRST_ID + i % ITEMS, FIRST_ID + OWNERS + i % (USERS - OWNERS), statuses[i % statuses.length]
+                    .name()});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (id, start_date, end_date, item_id, booker_id, status)" +
+                " values (?, ?, ?, ?, ?, ?)", bookings);
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Object[]{FIRST_ID + i, "Comment " + i, FIRST_ID + i % ITEMS,
+                    FIRST_ID + OWNERS + i % (USERS - OWNERS), Timestamp.valueOf(NOW.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (id, text, item_id, user_id, created_date)" +
+                " values (?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    static void deleteSeed(@Autowired JdbcTemplate jdbcTemplate) {
+        for (String table : List.of("comments", "booking", "items", "requests", "users")) {
+            jdbcTemplate.update("delete from " + table + " where id >= ?", FIRST_ID);
+        }
+        for (List<String> foreignKey : FOREIGN_KEYS) {
+            jdbcTemplate.execute("alter table " + foreignKey.get(0) + " add constraint " + foreignKey.get(1) +
+                    " foreign key (" + foreignKey.get(2) + ") references " + foreignKey.get(3));
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                query("bookings of booker", List.of(BOOKER_START),
+                        t -> t.bookingRepository.findByBookerIdOrderByStartDesc(BOOKER_ID, PAGE)),
+                query("bookings of booker after cursor", List.of(BOOKER_START),
+                        t -> t.bookingRepository.findByBookerIdAfterCursor(BOOKER_ID, NOW, 1L, LIMIT)),
+                query("current bookings of booker", List.of(BOOKER_START),
+                        t -> t.bookingRepository.findCurrentBookingsByBookerId(BOOKER_ID, NOW, PAGE)),
+                query("past bookings of booker", List.of(BOOKER_START),
+                        t -> t.bookingRepository.findByBookerIdAndEndInPast(BOOKER_ID, NOW, PAGE)),
+                query("future bookings of booker", List.of(BOOKER_START),
+                        t -> t.bookingRepository.findByBookerIdAndStartInFuture(BOOKER_ID, NOW, PAGE)),
+                query("bookings of booker by status", List.of(BOOKER_STATUS_START),
+                        t -> t.bookingRepository.findByBookerIdAndStatusContaining(BOOKER_ID, BookingStatus.WAITING,
+                                PAGE)),
+                query("past approved bookings of booker", List.of(BOOKER_START),
+                        t -> t.bookingRepository.getByBookerIdStatePast(BOOKER_ID, NOW)),
+                query("booker has bookings", List.of(BOOKER_START),
+                        t -> t.bookingRepository.existsByBookerId(BOOKER_ID)),
+                query("bookings of owner", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.getAllBookingsForOwnersItems(OWNER_ID, PAGE)),
+                query("bookings of owner after cursor", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.getAllBookingsForOwnersItemsAfterCursor(OWNER_ID, NOW, 1L, LIMIT)),
+                query("current bookings of owner", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.getCurrentBookingsForOwnersItems(OWNER_ID, NOW, NOW, PAGE)),
+                query("past bookings of owner", List.of(ITEMS_OWNER, ITEM_END),
+                        t -> t.bookingRepository.getPastBookingsForOwnersItems(OWNER_ID, NOW, PAGE)),
+                query("future bookings of owner", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.getFutureBookingsForOwnersItems(OWNER_ID, NOW, PAGE)),
+                query("bookings of owner by status", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.getBookingsForOwnersWithStatusContaining(OWNER_ID,
+                                BookingStatus.WAITING, PAGE)),
+                query("owner has bookings", List.of(ITEMS_OWNER, ITEM_START),
+                        t -> t.bookingRepository.existsByItemOwnerId(OWNER_ID)),
+                query("last bookings of items", List.of(ITEM_START),
+                        t -> t.bookingRepository.findLastBookingsByItemIds(ITEM_IDS, NOW)),
+                query("next bookings of items", List.of(ITEM_START),
+                        t -> t.bookingRepository.findNextBookingsByItemIds(ITEM_IDS, NOW)),
+                query("last booking of item", List.of(ITEM_START),
+                        t -> t.bookingRepository.findLastBookingsByItemId(ITEM_ID, BookingStatus.REJECTED, NOW,
+                                LIMIT)),
+                query("next booking of item", List.of(ITEM_START),
+                        t -> t.bookingRepository.findNextBookingsByItemId(ITEM_ID, BookingStatus.REJECTED, NOW,
+                                LIMIT)),
+                query("overlapping booking exists", List.of(ITEM_START),
+                        t -> t.bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(ITEM_ID,
+                                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW.plusDays(1), NOW)),
+                query("overlapping bookings of items", List.of(ITEM_START),
+                        t -> t.bookingRepository.findOverlappingByItemIds(ITEM_IDS,
+                                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW, NOW.plusDays(1))),
+                query("booked intervals of item", List.of(ITEM_START),
+                        t -> t.bookingRepository.findBookedIntervalsByItemId(ITEM_ID, BookingStatus.REJECTED)),
+                query("items of owner", List.of(ITEMS_OWNER),
+                        t -> t.itemRepository.findByOwnerIdOrderByIdAsc(OWNER_ID, PAGE)),
+                query("items of owner after cursor", List.of(ITEMS_OWNER),
+                        t -> t.itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(OWNER_ID, 1L, LIMIT)),
+                query("items of requests", List.of(ITEMS_REQUEST),
+                        t -> t.itemRepository.findByRequestIdIn(REQUEST_IDS)),
+                query("locked items", List.of(ITEMS_PRIMARY_KEY),
+                        t -> t.itemRepository.findAllByIdInForUpdate(ITEM_IDS)),
+                query("comments of items", List.of(COMMENTS_ITEM_CREATED),
+                        t -> t.commentRepository.getByItem_IdInOrderByCreatedDesc(ITEM_IDS)),
+                query("requests of requester", List.of(REQUESTS_REQUESTER_CREATED),
+                        t -> t.itemRequestRepository.findAllByRequesterId(OWNER_ID,
+                                Sort.by(Sort.Direction.DESC, "created"))),
+                query("requests of other users after cursor", List.of(REQUESTS_PRIMARY_KEY),
+                        t -> t.itemRequestRepository.findByRequesterIdNotAndIdGreaterThanOrderByIdAsc(OWNER_ID,
+                                FIRST_ID, PageRequest.of(0, 10)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQuery_shouldUseItsIndex(String name, List<String> indexes, Consumer<SchemaIndexTest> query) {
+        for (String plan : plans(name, query)) {
+            assertFalse(plan.contains("tableScan"), () -> "Full scan in plan of " + name + ": " + plan);
+            for (String index : indexes) {
+                assertTrue(plan.contains("PUBLIC." + indexName(index) + ":"),
+                        () -> "No lookup in " + index + " in plan of " + name + ": " + plan);
+            }
+        }
+    }
+
+    /**
+     * "requester_id <> ?" matches nearly every row, so no index can serve the condition and it is not among the hot
+     * queries above. The page is read from the primary key in id order instead, stopping once it is full.
+     */
+    @Test
+    void requestsOfOtherUsers_shouldReadPrimaryKeyInPageOrder() {
+        String name = "requests of other users";
+        for (String plan : plans(name, t -> t.itemRequestRepository.findByRequesterIdNot(OWNER_ID, PAGE))) {
+            assertTrue(plan.contains("PUBLIC." + indexName(REQUESTS_PRIMARY_KEY) + " */"),
+                    () -> "No " + REQUESTS_PRIMARY_KEY + " in plan of " + name + ": " + plan);
+            assertTrue(plan.contains("/* index sorted */"), () -> "Sorted rows in plan of " + name + ": " + plan);
+        }
+    }
+
+    @Test
+    void bookingExistsChecks_shouldStopAtFirstRow() {
+        List<Consumer<SchemaIndexTest>> checks = List.of(
+                t -> t.bookingRepository.existsByBookerId(BOOKER_ID),
+                t -> t.bookingRepository.existsByItemOwnerId(OWNER_ID));
+        for (Consumer<SchemaIndexTest> check : checks) {
+            for (String plan : plans("booking exists check", check)) {
+                assertTrue(plan.contains("FETCH FIRST"), () -> "No row limit in plan: " + plan);
+                assertFalse(plan.toLowerCase().contains("count("), () -> "Count in plan: " + plan);
+            }
+        }
+    }
+
+    /**
+     * @return plans of the selects the query runs
+     */
+    private List<String> plans(String name, Consumer<SchemaIndexTest> query) {
+        statementCapture.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.accept(this));
+        } finally {
+            statementCapture.stop();
+        }
+        List<QueryInfo> selects = statementCapture.getQueries().stream()
+                .filter(info -> info.getQuery().trim().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+        assertFalse(selects.isEmpty(), "No select captured for " + name);
+        return selects.stream()
+                .map(info -> jdbcTemplate.queryForObject("explain " + info.getQuery(), String.class,
+                        parameters(info)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the name of the index, or of the index behind a primary key constraint, which H2 names itself
+     */
+    private String indexName(String index) {
+        List<String> constraintIndexes = jdbcTemplate.queryForList("select index_name" +
+                " from information_schema.table_constraints" +
+                " where constraint_name = ? and constraint_type = 'PRIMARY KEY'", String.class, index);
+        return constraintIndexes.isEmpty() ? index : constraintIndexes.get(0);
+    }
+
+    private static Arguments query(String name, List<String> indexes, Consumer<SchemaIndexTest> query) {
+        return Arguments.of(name, indexes, query);
+    }
+
+    private static Object[] parameters(QueryInfo info) {
+        if (info.getParametersList().isEmpty()) {
+            return new Object[0];
+        }
+        return info.getParametersList().get(0).stream()
+                .sorted(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> operation.getArgs()[1])
+                .toArray();
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    static class StatementCapture implements QueryExecutionListener {
+        private final ThreadLocal<List<QueryInfo>> queries = new ThreadLocal<>();
+        private List<QueryInfo> captured = List.of();
+
+        void start() {
+            queries.set(new ArrayList<>());
+        }
+
+        void stop() {
+            captured = queries.get();
+            queries.remove();
+        }
+
+        List<QueryInfo> getQueries() {
+            return captured;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<QueryInfo> current = queries.get();
+            if (current != null) {
+                current.addAll(queryInfoList);
+            }
+        }
+    }
+}
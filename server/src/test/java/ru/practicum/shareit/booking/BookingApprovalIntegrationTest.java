@@ -0,0 +1,196 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectExistException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingApprovalIntegrationTest {
+    private static final int WAITING_BOOKINGS = 1000;
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item otherItem;
+
+    @BeforeEach
+    void createData() {
+        owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        User otherOwner = userRepository.save(new User(null, "Ivan", "ivan@mail.ru"));
+        booker = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+        item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        otherItem = itemRepository.save(Item.builder()
+                .name("Saw")
+                .description("Hand saw")
+                .available(true)
+                .owner(otherOwner)
+                .build());
+    }
+
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveBookings_shouldUpdateOnlyWaitingBookingsOfOwner() throws Exception {
+        Booking waiting = save(item, 0, BookingStatus.WAITING);
+        Booking rejected = save(item, 2, BookingStatus.REJECTED);
+        Booking foreign = save(otherItem, 0, BookingStatus.WAITING);
+
+        mvc.perform(patch("/bookings/approve?approved=true")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(waiting.getId(), rejected.getId(),
+                                foreign.getId(), -1L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(waiting.getId()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].item.name").value("Drill"));
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateBookings_shouldRejectThousandBookingsWithFewStatements() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < WAITING_BOOKINGS; i++) {
+            bookings.add(new Booking(null, start.plusDays(2L * i), start.plusDays(2L * i + 1), item, booker,
+                    BookingStatus.WAITING));
+        }
+        List<Long> ids = bookingRepository.saveAll(bookings).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        sqlStatementCounter.start();
+        List<BookingDto> updated = bookingService.updateBookings(ids, owner.getId(), false);
+        int statements = sqlStatementCounter.stop().getStatements();
+
+        assertEquals(WAITING_BOOKINGS, updated.size());
+        assertTrue(updated.stream().allMatch(booking -> booking.getStatus() == BookingStatus.REJECTED));
+        assertTrue(statements <= 3, () -> "Rejecting took " + statements + " statements.");
+        assertTrue(bookingService.updateBookings(ids, owner.getId(), true).isEmpty(),
+                "Rejected bookings are not approved by the bulk update.");
+    }
+
+    @Test
+    void updateBooking_shouldDecideWithOneStatement() {
+        Booking waiting = save(item, 0, BookingStatus.WAITING);
+        itemRepository.findById(item.getId());
+
+        sqlStatementCounter.start();
+        BookingDto approved = bookingService.updateBooking(waiting.getId(), owner.getId(), true);
+        int statements = sqlStatementCounter.stop().getStatements();
+
+        assertEquals(BookingStatus.APPROVED, approved.getStatus());
+        assertEquals("Drill", approved.getItem().getName());
+        assertEquals(booker.getId(), approved.getBooker().getId());
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void updateBooking_shouldApplyOnlyOneOfConcurrentDecisions() throws InterruptedException {
+        int bookingCount = 50;
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingCount; i++) {
+            bookings.add(save(item, 2 * i, BookingStatus.WAITING));
+        }
+        Map<Long, BookingStatus> winners = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (Booking booking : bookings) {
+            for (boolean approved : new boolean[]{true, false}) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        BookingDto decided = bookingService.updateBooking(booking.getId(), owner.getId(), approved);
+                        assertNull(winners.put(decided.getId(), decided.getStatus()), "Both decisions applied.");
+                    } catch (ObjectExistException e) {
+                        conflicts.incrementAndGet();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Decisions did not finish in time.");
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+        assertEquals(bookingCount, winners.size());
+        assertEquals(bookingCount, conflicts.get());
+        for (Booking booking : bookingRepository.findAllById(winners.keySet())) {
+            assertEquals(winners.get(booking.getId()), booking.getStatus());
+        }
+    }
+
+    private Booking save(Item item, int day, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start.plusDays(day), start.plusDays(day + 1), item, booker,
+                status));
+    }
+}
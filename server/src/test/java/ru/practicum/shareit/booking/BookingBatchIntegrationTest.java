@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingBatchIntegrationTest {
+    private static final int ITEMS = 5;
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void createData() {
+        owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        booker = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), items.get(0), booker,
+                BookingStatus.APPROVED));
+    }
+
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBookings_shouldInsertValidElementsAndReportTheRest() throws Exception {
+        List<BookingDto> bookingDtos = List.of(
+                booking(items.get(1).getId(), start, start.plusDays(1)),
+                booking(items.get(0).getId(), start.plusHours(12), start.plusDays(2)),
+                booking(items.get(1).getId(), start.plusHours(12), start.plusDays(2)),
+                booking(-1L, start, start.plusDays(1)),
+                booking(items.get(1).getId(), start.plusDays(1), start.plusDays(2)));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(bookingDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.status").value("WAITING"))
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[2].status").value(409))
+                .andExpect(jsonPath("$[3].status").value(404))
+                .andExpect(jsonPath("$[4].status").value(200));
+
+        List<Booking> created = bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(items.get(1).getId()))
+                .collect(Collectors.toList());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    void createBookings_shouldRunSameNumberOfStatementsForAnyBatchSize() {
+        // The first batch also caches the booker.
+        countStatements(1);
+        int small = countStatements(1);
+        int large = countStatements(50);
+
+        assertEquals(small, large);
+        assertTrue(large <= 3, () -> "A batch took " + large + " statements.");
+    }
+
+    private int countStatements(int size) {
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        LocalDateTime first = start.plusDays(10 + bookingRepository.count() * 2);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime bookingStart = first.plusDays(i / ITEMS * 2L);
+            bookingDtos.add(booking(items.get(i % ITEMS).getId(), bookingStart, bookingStart.plusDays(1)));
+        }
+        sqlStatementCounter.start();
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, booker.getId());
+        int statements = sqlStatementCounter.stop().getStatements();
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200),
+                () -> "Unexpected failures: " + results);
+        return statements;
+    }
+
+    private static BookingDto booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingDto(null, start, end, null, itemId, null, null);
+    }
+}
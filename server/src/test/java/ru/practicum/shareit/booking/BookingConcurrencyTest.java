@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectExistException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int BOOKERS = 200;
+    private static final int HOT_ITEMS = 4;
+    private static final int SLOTS = 6;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void createData() {
+        User owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        for (int i = 0; i < HOT_ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker " + i, "booker" + i + "@mail.ru")));
+        }
+    }
+
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_shouldNeverDoubleBookUnderConcurrentRequests() throws InterruptedException {
+        // Slots start every 12 hours and last a day, so every slot overlaps its neighbours.
+        LocalDateTime firstStart = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        for (int i = 0; i < BOOKERS; i++) {
+            User booker = bookers.get(i);
+            Item item = items.get(i % HOT_ITEMS);
+            LocalDateTime slotStart = firstStart.plusHours(12L * (i % SLOTS));
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    bookingService.createBooking(new BookingDto(null, slotStart, slotStart.plusDays(1), null,
+                            item.getId(), null, null), booker.getId());
+                    booked.incrementAndGet();
+                } catch (ObjectExistException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Bookers did not finish in time.");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("{} concurrent booking attempts on {} items took {} ms ({} per second): {} booked, {} rejected",
+                BOOKERS, HOT_ITEMS, millis, BOOKERS * 1000L / Math.max(1, millis), booked.get(), rejected.get());
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+        assertEquals(BOOKERS, booked.get() + rejected.get());
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(booked.get(), bookingsByItem.values().stream().mapToInt(List::size).sum());
+        for (Item item : items) {
+            List<Booking> bookings = bookingsByItem.get(item.getId());
+            assertFalse(bookings == null || bookings.isEmpty(), "Every hot item gets booked.");
+            bookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                Booking previous = bookings.get(i - 1);
+                Booking next = bookings.get(i);
+                assertEquals(BookingStatus.WAITING, next.getStatus());
+                assertFalse(next.getStart().isBefore(previous.getEnd()), () -> "Bookings " + previous.getId() +
+                        " and " + next.getId() + " of item " + item.getId() + " overlap.");
+            }
+        }
+    }
+}
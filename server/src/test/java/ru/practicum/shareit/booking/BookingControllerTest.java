@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -15,8 +16,10 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
@@ -28,10 +31,12 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
 @WebMvcTest(BookingController.class)
+@Import(SqlStatementCounter.class)
 public class BookingControllerTest {
     @Autowired
     ObjectMapper objectMapper;
@@ -202,4 +207,30 @@ public class BookingControllerTest {
                 .getAllBookingByOwnerId(USER_ID, STATE_ALL, page);
         Mockito.verifyNoMoreInteractions(bookingService);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingByUserId_shouldUseCursorAndReturnNextCursor() {
+        String after = PageCursor.encode(DATE.plusDays(10), 9L);
+        BookingDto last = bookings.get(bookings.size() - 1);
+
+        Mockito.when(bookingService.getAllBookingByUserIdAfter(USER_ID, STATE_ALL, after, bookings.size()))
+                .thenReturn(bookings);
+
+        mvc.perform(
+                        get("/bookings")
+                                .header("X-Sharer-User-Id", String.valueOf(USER_ID))
+                                .param("state", STATE_ALL)
+                                .param("size", String.valueOf(bookings.size()))
+                                .param("after", after)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_PAGE_HEADER,
+                        PageCursor.encode(last.getStart(), last.getId())))
+                .andExpect(content().json(objectMapper.writeValueAsString(bookings)));
+
+        Mockito.verify(bookingService, Mockito.times(1))
+                .getAllBookingByUserIdAfter(USER_ID, STATE_ALL, after, bookings.size());
+        Mockito.verifyNoMoreInteractions(bookingService);
+    }
+}
@@ -6,8 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
@@ -16,9 +16,12 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryJpaTest {
@@ -64,7 +67,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdOrderByStartDesc(anna.getId(), page);
+        Slice<Booking> resultBookings = bookingRepository.findByBookerIdOrderByStartDesc(anna.getId(), page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -79,7 +82,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findCurrentBookingsByBookerId(anna.getId(), DATE, page);
+        Slice<Booking> resultBookings = bookingRepository.findCurrentBookingsByBookerId(anna.getId(), DATE, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -94,7 +97,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndEndInPast(anna.getId(), DATE, page);
+        Slice<Booking> resultBookings = bookingRepository.findByBookerIdAndEndInPast(anna.getId(), DATE, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -109,7 +112,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStartInFuture(anna.getId(), DATE, page);
+        Slice<Booking> resultBookings = bookingRepository.findByBookerIdAndStartInFuture(anna.getId(), DATE, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -124,7 +127,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStatusContaining(anna.getId(),
+        Slice<Booking> resultBookings = bookingRepository.findByBookerIdAndStatusContaining(anna.getId(),
                 BookingStatus.WAITING, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
@@ -140,14 +143,14 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.findByBookerIdAndStatusContaining(anna.getId(),
+        Slice<Booking> resultBookings = bookingRepository.findByBookerIdAndStatusContaining(anna.getId(),
                 BookingStatus.REJECTED, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
 
     @Test
-    void getBookingByStateByUserId_getAllByBookerIdOrderByStartDesc() {
+    void getBookingByStateByUserId_existsByBookerIdAndItemOwnerId() {
         Booking booking = new Booking();
         booking.setStart(DATE.minusDays(2));
         booking.setEnd(DATE.plusDays(2));
@@ -157,8 +160,10 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.getAllByBookerIdOrderByStartDesc(anna.getId());
-        assertEquals(1, resultBookings.size());
+        assertTrue(bookingRepository.existsByBookerId(anna.getId()));
+        assertFalse(bookingRepository.existsByBookerId(galina.getId()));
+        assertTrue(bookingRepository.existsByItemOwnerId(galina.getId()));
+        assertFalse(bookingRepository.existsByItemOwnerId(anna.getId()));
     }
 
     @Test
@@ -172,7 +177,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getAllBookingsForOwnersItems(galina.getId(), page);
+        Slice<Booking> resultBookings = bookingRepository.getAllBookingsForOwnersItems(galina.getId(), page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -187,7 +192,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getCurrentBookingsForOwnersItems(galina.getId(), DATE,
+        Slice<Booking> resultBookings = bookingRepository.getCurrentBookingsForOwnersItems(galina.getId(), DATE,
                 DATE.plusDays(1), page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
@@ -203,7 +208,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getPastBookingsForOwnersItems(galina.getId(), DATE, page);
+        Slice<Booking> resultBookings = bookingRepository.getPastBookingsForOwnersItems(galina.getId(), DATE, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -218,7 +223,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getFutureBookingsForOwnersItems(galina.getId(), DATE, page);
+        Slice<Booking> resultBookings = bookingRepository.getFutureBookingsForOwnersItems(galina.getId(), DATE, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
@@ -233,7 +238,7 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getBookingsForOwnersWithStatusContaining(galina.getId(),
+        Slice<Booking> resultBookings = bookingRepository.getBookingsForOwnersWithStatusContaining(galina.getId(),
                 BookingStatus.WAITING, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
@@ -249,12 +254,76 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        Page<Booking> resultBookings = bookingRepository.getBookingsForOwnersWithStatusContaining(galina.getId(),
+        Slice<Booking> resultBookings = bookingRepository.getBookingsForOwnersWithStatusContaining(galina.getId(),
                 BookingStatus.REJECTED, page);
         assertEquals(1, resultBookings.getNumberOfElements());
     }
 
 
+    @Test
+    void findLastAndNextBookingsByItemIds_shouldReturnOneBookingPerItem() {
+        Item pen = new Item();
+        pen.setName("pen");
+        pen.setDescription("blue pen");
+        pen.setAvailable(true);
+        pen.setOwner(galina);
+        em.persist(pen);
+
+        Booking oldBooking = new Booking(null, DATE.minusDays(5), DATE.minusDays(4), item, anna,
+                BookingStatus.APPROVED);
+        Booking lastBooking = new Booking(null, DATE.minusDays(3), DATE.minusDays(2), item, anna,
+                BookingStatus.APPROVED);
+        Booking nextBooking = new Booking(null, DATE.plusDays(1), DATE.plusDays(2), item, anna,
+                BookingStatus.WAITING);
+        Booking laterBooking = new Booking(null, DATE.plusDays(3), DATE.plusDays(4), item, anna,
+                BookingStatus.WAITING);
+        Booking penNextBooking = new Booking(null, DATE.plusDays(2), DATE.plusDays(3), pen, anna,
+                BookingStatus.APPROVED);
+        em.persist(oldBooking);
+        em.persist(lastBooking);
+        em.persist(nextBooking);
+        em.persist(laterBooking);
+        em.persist(penNextBooking);
+        em.flush();
+
+        List<Long> itemIds = List.of(item.getId(), pen.getId());
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, DATE);
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, DATE);
+
+        assertEquals(1, lastBookings.size());
+        assertEquals(lastBooking.getId(), lastBookings.get(0).getId());
+        assertEquals(2, nextBookings.size());
+        assertEquals(nextBooking.getId(), nextBookings.get(0).getId());
+        assertEquals(penNextBooking.getId(), nextBookings.get(1).getId());
+    }
+
+
+    @Test
+    void findByBookerIdAfterCursor_shouldContinueFromLastRowOfPreviousPage() {
+        LocalDateTime start = DATE.truncatedTo(ChronoUnit.SECONDS);
+        Booking first = new Booking(null, start.plusDays(3), start.plusDays(4), item, anna, BookingStatus.APPROVED);
+        Booking second = new Booking(null, start.plusDays(2), start.plusDays(3), item, anna, BookingStatus.APPROVED);
+        Booking sameStartAsSecond =
+                new Booking(null, start.plusDays(2), start.plusDays(5), item, anna, BookingStatus.WAITING);
+        Booking last = new Booking(null, start.plusDays(1), start.plusDays(2), item, anna, BookingStatus.APPROVED);
+        em.persist(first);
+        em.persist(second);
+        em.persist(sameStartAsSecond);
+        em.persist(last);
+        em.flush();
+
+        List<Booking> firstPage = bookingRepository.findByBookerIdAfterCursor(anna.getId(),
+                first.getStart().plusDays(1), 0L, PageRequest.of(0, 2));
+        assertEquals(List.of(first.getId(), second.getId()),
+                List.of(firstPage.get(0).getId(), firstPage.get(1).getId()));
+
+        List<Booking> secondPage = bookingRepository.findByBookerIdAfterCursor(anna.getId(),
+                second.getStart(), second.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(sameStartAsSecond.getId(), last.getId()),
+                List.of(secondPage.get(0).getId(), secondPage.get(1).getId()));
+    }
+
+
     @AfterEach
     void deleteData() {
         bookingRepository.deleteAll();
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -11,6 +14,7 @@ import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -18,7 +22,9 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -26,7 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 @Transactional
 @Rollback
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class BookingServiceIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
@@ -36,6 +42,8 @@ public class BookingServiceIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private BookingServiceImpl bookingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private static final LocalDateTime DATE =
             LocalDateTime.of(2023, 12, 10, 12, 30, 0);
@@ -81,4 +89,68 @@ public class BookingServiceIntegrationTest {
 
         bookingRepository.delete(booking);
     }
+
+    @Transactional
+    @Test
+    void getAllBookingByUserIdAndOwnerId_shouldNotPreloadBookingHistory() {
+        User galina = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        User anna = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Book");
+        itemDto.setDescription("very interesting romantic book description");
+        itemDto.setAvailable(true);
+        Item book = itemRepository.save(ItemMapper.toItem(itemDto, galina));
+
+        for (int i = 0; i < 20; i++) {
+            bookingRepository.save(new Booking(null, DATE.plusDays(i), DATE.plusDays(i).plusHours(1), book, anna,
+                    BookingStatus.APPROVED));
+        }
+        bookingRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Pageable page = PageMaker.makePageableWithSort(0, 30);
+
+        statistics.clear();
+        List<BookingDto> bookerBookings = bookingService.getAllBookingByUserId(anna.getId(), "ALL", page);
+        assertEquals(20, bookerBookings.size());
+        assertEquals(3, statistics.getPrepareStatementCount(),
+                "User check, booking existence check and one page query are expected.");
+
+        statistics.clear();
+        List<BookingDto> ownerBookings = bookingService.getAllBookingByOwnerId(galina.getId(), "ALL", page);
+        assertEquals(20, ownerBookings.size());
+        assertEquals(3, statistics.getPrepareStatementCount(),
+                "User check, booking existence check and one page query are expected.");
+    }
+
+    @Transactional
+    @Test
+    void getAllBookingByOwnerId_shouldNotCountRowsForFullPages() {
+        User galina = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        User anna = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Book");
+        itemDto.setDescription("very interesting romantic book description");
+        itemDto.setAvailable(true);
+        Item book = itemRepository.save(ItemMapper.toItem(itemDto, galina));
+
+        for (int i = 0; i < 20; i++) {
+            bookingRepository.save(new Booking(null, DATE.plusDays(i), DATE.plusDays(i).plusHours(1), book, anna,
+                    BookingStatus.WAITING));
+        }
+        bookingRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String state : List.of("ALL", "PAST", "WAITING")) {
+            statistics.clear();
+            List<BookingDto> ownerBookings =
+                    bookingService.getAllBookingByOwnerId(galina.getId(), state, PageMaker.makePageableWithSort(5, 5));
+            assertEquals(5, ownerBookings.size());
+            assertEquals(3, statistics.getPrepareStatementCount(),
+                    "No count query is expected for a full page in state " + state);
+        }
+    }
 }
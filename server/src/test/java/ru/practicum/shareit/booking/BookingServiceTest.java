@@ -5,20 +5,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.common.PageMaker;
+import ru.practicum.shareit.exception.ObjectExistException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ObjectValidationException;
 import ru.practicum.shareit.exception.StatusBookingException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -27,6 +30,8 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -37,6 +42,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
@@ -49,6 +56,8 @@ public class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -104,7 +113,7 @@ public class BookingServiceTest {
                 new BookingDto.User(this.anna.getId(), this.anna.getName()),
                 BookingStatus.WAITING);
 
-        when(itemRepository.findById(any(Long.class))).thenReturn(Optional.of(book));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.of(book));
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(anna));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
@@ -113,7 +122,7 @@ public class BookingServiceTest {
         assertNotNull(createdBooking, "Booking should not be null");
         assertEquals(BookingStatus.APPROVED, createdBooking.getStatus(), "Booking status should be APPROVED");
 
-        verify(itemRepository, times(1)).findById(any(Long.class));
+        verify(itemRepository, times(1)).findByIdForUpdate(any(Long.class));
         verify(userRepository, times(1)).findById(anna.getId());
         verify(bookingRepository, times(1)).save(any(Booking.class));
     }
@@ -176,7 +185,7 @@ public class BookingServiceTest {
     @Test
     void createBooking_shouldThrowExceptionIfEndIsBeforeStart() {
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(anna));
-        when(itemRepository.findById(any(Long.class))).thenReturn(Optional.of(book));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.of(book));
 
         assertThrows(ObjectValidationException.class,
                 () -> bookingService.createBooking(
@@ -189,6 +198,80 @@ public class BookingServiceTest {
                                 BookingStatus.WAITING), anna.getId()));
     }
 
+    @Transactional
+    @Test
+    void createBooking_shouldThrowExceptionIfDatesOverlapAnotherBooking() {
+        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(anna));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.of(book));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(any(Long.class), any(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(true);
+
+        assertThrows(ObjectExistException.class,
+                () -> bookingService.createBooking(
+                        new BookingDto(null, booking.getStart(), booking.getEnd(),
+                                new BookingDto.Item(book.getId(), book.getName()),
+                                book.getId(),
+                                new BookingDto.User(anna.getId(), anna.getName()),
+                                BookingStatus.WAITING), anna.getId()));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBookings_shouldReportOutcomeOfEveryElement() {
+        when(userRepository.findById(anna.getId())).thenReturn(Optional.of(anna));
+        when(itemRepository.findAllByIdInForUpdate(any())).thenReturn(List.of(book));
+        when(bookingRepository.findOverlappingByItemIds(any(), any(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of());
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(b -> b.setId(10L));
+            return null;
+        }).when(bookingRepository).insertAll(any());
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(null, booking.getStart(), booking.getEnd(), null, book.getId(), null, null),
+                new BookingDto(null, booking.getStart(), booking.getEnd(), null, 99L, null, null),
+                new BookingDto(null, booking.getStart().plusHours(1), booking.getEnd(), null, book.getId(), null,
+                        null),
+                new BookingDto(null, booking.getEnd(), booking.getStart(), null, book.getId(), null, null));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, anna.getId());
+
+        assertEquals(List.of(200, 404, 409, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(10L, results.get(0).getBooking().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertNotNull(results.get(1).getError());
+        verify(bookingRepository, times(1)).insertAll(any());
+        verify(itemAvailabilityIndex, times(1)).index(any(Booking.class));
+    }
+
+    @Test
+    void updateBookings_shouldReturnOnlyUpdatedBookings() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userRepository.findById(galina.getId())).thenReturn(Optional.of(galina));
+        when(bookingRepository.updateStatus(Set.of(1L, 2L), galina.getId(), BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(List.of(booking));
+
+        List<BookingDto> bookings = bookingService.updateBookings(List.of(1L, 2L), galina.getId(), false);
+
+        assertEquals(1, bookings.size());
+        assertEquals(BookingStatus.REJECTED, bookings.get(0).getStatus());
+        verify(itemRepository, times(1)).findAllById(Set.of(book.getId()));
+        verify(itemAvailabilityIndex, times(1)).index(booking);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Transactional
+    @Test
+    void updateBooking_shouldThrowExceptionIfBookingIsRejectedAndApproving() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(ObjectExistException.class,
+                () -> bookingService.updateBooking(booking.getId(), galina.getId(), true));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Transactional
     @Test
     void updateBooking_shouldThrowExceptionIfBookingIdIsIncorrect() {
@@ -228,30 +311,39 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void updateBooking_shouldUpdateBookingStatusToApproved() {
-        booking.setStatus(BookingStatus.WAITING);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatus(List.of(booking.getId()), galina.getId(), BookingStatus.WAITING,
+                BookingStatus.APPROVED)).thenReturn(List.of(booking));
 
         BookingDto bookingDto = bookingService.updateBooking(booking.getId(), galina.getId(), true);
 
         assertEquals(BookingStatus.APPROVED, bookingDto.getStatus());
 
-        verify(bookingRepository, times(1)).findById(any(Long.class));
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, never()).findById(any(Long.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Transactional
     @Test
     void updateBooking_shouldUpdateBookingStatusToRejected() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.updateStatus(List.of(booking.getId()), galina.getId(), BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(List.of(booking));
 
         BookingDto bookingDto = bookingService.updateBooking(booking.getId(), galina.getId(), false);
 
         assertEquals(BookingStatus.REJECTED, bookingDto.getStatus());
 
-        verify(bookingRepository, times(1)).findById(any(Long.class));
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, never()).findById(any(Long.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Transactional
+    @Test
+    void updateBooking_shouldThrowExceptionIfBookingIsApprovedAndRejecting() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(ObjectExistException.class,
+                () -> bookingService.updateBooking(booking.getId(), galina.getId(), false));
     }
 
     @Transactional
@@ -292,7 +384,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsAll() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getAllBookingsForOwnersItems(any(Long.class))).thenReturn(List.of(booking));
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
@@ -309,7 +401,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsCurrent() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -326,7 +418,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsPast() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -343,7 +435,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsFuture() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -360,7 +452,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsWaiting() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -377,7 +469,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndStateIsRejected() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -394,7 +486,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldReturnBookingIfSizeIsNullAndUnknownState() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -408,10 +500,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getBookingsByOwnerId_shouldReturnBookingsIfBookingStateIsAll() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getAllBookingsForOwnersItems(any(Long.class), any(Pageable.class))).thenReturn(pages);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
@@ -428,10 +520,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getBookingsByOwnerId_shouldReturnBookingsIfStateIsCurrent() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getCurrentBookingsForOwnersItems(any(Long.class), any(LocalDateTime.class),
                 any(LocalDateTime.class), any(Pageable.class))).thenReturn(pages);
 
@@ -449,10 +541,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getBookingsByOwnerId_shouldReturnBookingsIfBookingStateIsPast() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getPastBookingsForOwnersItems(any(Long.class), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -470,10 +562,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getBookingsByOwnerId_shouldReturnBookingsIfBookingStateIsFuture() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getFutureBookingsForOwnersItems(any(Long.class), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -493,10 +585,10 @@ public class BookingServiceTest {
     void getBookingsByOwnerId_shouldReturnBookingsIfBookingStateIsWaiting() {
         booking.setStatus(BookingStatus.WAITING);
 
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getBookingsForOwnersWithStatusContaining(any(Long.class), any(BookingStatus.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -516,10 +608,10 @@ public class BookingServiceTest {
     void getBookingsByOwnerId_shouldReturnBookingsIfBookingStateIsRejected() {
         booking.setStatus(BookingStatus.REJECTED);
 
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.getBookingsForOwnersWithStatusContaining(any(Long.class), any(BookingStatus.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -538,7 +630,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByOwnerId_shouldThrowExceptionBookingStateIsUnknownState() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByItemOwnerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByItemOwnerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
 
@@ -557,11 +649,29 @@ public class BookingServiceTest {
                 () -> bookingService.getAllBookingByUserId(999L, STATE_ALL, page));
     }
 
+    @Test
+    void getAllBookingByUserIdAfter_shouldThrowExceptionIfUserIdIsIncorrect() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getAllBookingByUserIdAfter(999L, STATE_ALL, null, SIZE));
+        verify(bookingRepository, never()).existsByBookerId(any(Long.class));
+    }
+
+    @Test
+    void getAllBookingByOwnerIdAfter_shouldThrowExceptionIfUserIdIsIncorrect() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getAllBookingByOwnerIdAfter(999L, STATE_ALL, null, SIZE));
+        verify(bookingRepository, never()).existsByItemOwnerId(any(Long.class));
+    }
+
     @Transactional
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsAll() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
@@ -579,7 +689,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsCurrent() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -595,7 +705,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsPast() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -611,7 +721,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsFuture() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -627,7 +737,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsWaiting() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -643,7 +753,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndStateIsRejected() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -659,7 +769,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldReturnBookingIfSizeIsNullAndUnknownState() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -673,10 +783,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsAll() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdOrderByStartDesc(any(Long.class), any(Pageable.class))).thenReturn(pages);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
@@ -693,10 +803,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsCurrent() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findCurrentBookingsByBookerId(any(Long.class), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -714,10 +824,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsPast() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndEndInPast(any(Long.class), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -735,10 +845,10 @@ public class BookingServiceTest {
     @Transactional
     @Test
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsFuture() {
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartInFuture(any(Long.class), any(LocalDateTime.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -758,10 +868,10 @@ public class BookingServiceTest {
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsWaiting() {
         booking.setStatus(BookingStatus.WAITING);
 
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatusContaining(any(Long.class), any(BookingStatus.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -781,10 +891,10 @@ public class BookingServiceTest {
     void getAllBookingByUserId_shouldReturnBookingsIfBookingStateIsRejected() {
         booking.setStatus(BookingStatus.REJECTED);
 
-        Page<Booking> pages = new PageImpl<>(List.of(booking));
+        Slice<Booking> pages = new SliceImpl<>(List.of(booking));
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatusContaining(any(Long.class), any(BookingStatus.class),
                 any(Pageable.class))).thenReturn(pages);
 
@@ -803,7 +913,7 @@ public class BookingServiceTest {
     @Test
     void getAllBookingByUserId_shouldThrowExceptionBookingStateIsUnknownState() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(bookingRepository.getAllByBookerIdOrderByStartDesc(any(Long.class))).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerId(any(Long.class))).thenReturn(true);
 
         Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
 
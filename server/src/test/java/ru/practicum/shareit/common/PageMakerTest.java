@@ -0,0 +1,42 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ObjectValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PageMakerTest {
+    private static final LocalDateTime DATE =
+            LocalDateTime.of(2023, 12, 10, 12, 30, 0);
+
+    @Test
+    void makePageableWithSort_shouldKeepOffsetWhenFromIsNotMultipleOfSize() {
+        Pageable page = PageMaker.makePageableWithSort(5, 10);
+
+        assertEquals(5, page.getOffset());
+        assertEquals(10, page.getPageSize());
+    }
+
+    @Test
+    void pageCursor_shouldDecodeEncodedBookingKey() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(DATE, 42L));
+
+        assertEquals(DATE, cursor.getStart());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void pageCursor_shouldDecodeEncodedId() {
+        assertEquals(7L, PageCursor.decode(PageCursor.encode(7L)).getId());
+    }
+
+    @Test
+    void pageCursor_shouldRejectMalformedToken() {
+        assertThrows(ObjectValidationException.class, () -> PageCursor.decode("not a token"));
+        assertThrows(ObjectValidationException.class, () -> PageCursor.decode(PageCursor.encode(7L)).getStart());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.common;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class VirtualThreadsConfigTest {
+    private final VirtualThreadsConfig config = new VirtualThreadsConfig();
+    private final ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void customizer_shouldKeepTomcatPoolWithoutVirtualThreads() {
+        ExecutorService executor = config.virtualThreadExecutor();
+        config.virtualThreadsProtocolHandlerCustomizer(executor).customize(protocolHandler);
+
+        assertNull(executor);
+        verifyNoInteractions(protocolHandler);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void customizer_shouldRunRequestsOnVirtualThreads() throws Exception {
+        ExecutorService virtualThreadExecutor = config.virtualThreadExecutor();
+        config.virtualThreadsProtocolHandlerCustomizer(virtualThreadExecutor).customize(protocolHandler);
+
+        ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+        verify(protocolHandler).setExecutor(executor.capture());
+        Object virtual = virtualThreadExecutor
+                .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+        assertSame(virtualThreadExecutor, executor.getValue());
+        assertEquals(true, virtual);
+        virtualThreadExecutor.shutdown();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every request waits until all of them are in flight at once, which a pool of {@code server.tomcat.threads.max}
+ * platform threads can never let happen.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=4", "server.tomcat.threads.min-spare=1"})
+@ActiveProfiles({"test", "virtual-threads"})
+@EnabledIf("virtualThreadsAvailable")
+public class VirtualThreadsLoadTest {
+    private static final int CONCURRENT_REQUESTS = 200;
+    private static final CountDownLatch ALL_IN_FLIGHT = new CountDownLatch(CONCURRENT_REQUESTS);
+
+    @Value("${local.server.port}")
+    private int port;
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Test
+    void requests_shouldNotBeCappedByTomcatThreads() {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/test/wait-for-all"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CONCURRENT_REQUESTS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+
+        responses.forEach(response -> assertEquals("true", response.join().body()));
+    }
+
+    @TestConfiguration
+    @Import(WaitingController.class)
+    static class WaitingControllerConfig {
+    }
+
+    @RestController
+    static class WaitingController {
+        @GetMapping("/test/wait-for-all")
+        public boolean waitForAll() throws InterruptedException {
+            ALL_IN_FLIGHT.countDown();
+            return ALL_IN_FLIGHT.await(20, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReplicaRoutingDataSourceTest {
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void close() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routingDataSource.close();
+    }
+
+    @Test
+    void getConnection_shouldSendReadOnlyTransactionsToReplicasInTurn() throws SQLException {
+        routingDataSource = new ReplicaRoutingDataSource(pool("primary", "jdbc:h2:mem:primary"),
+                List.of(pool("replica-0", "jdbc:h2:mem:replica0"), pool("replica-1", "jdbc:h2:mem:replica1")),
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+        assertEquals("PRIMARY", database());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("REPLICA0", database());
+        assertEquals("REPLICA1", database());
+        assertEquals("REPLICA0", database());
+    }
+
+    @Test
+    void getConnection_shouldSkipUnavailableReplicaUntilItPassesHealthCheck() throws Exception {
+        int port = freePort();
+        routingDataSource = new ReplicaRoutingDataSource(pool("primary", "jdbc:h2:mem:primary"),
+                List.of(pool("replica-0", "jdbc:h2:tcp://localhost:" + port + "/mem:remote")),
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("PRIMARY", database());
+        assertEquals(List.of(), routingDataSource.getHealthyReplicas());
+
+        Server replica = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+        try {
+            routingDataSource.checkReplicas();
+
+            assertEquals(List.of("replica-0"), routingDataSource.getHealthyReplicas());
+            assertEquals("REMOTE", database());
+        } finally {
+            replica.stop();
+        }
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select database()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername("test");
+        pool.setPassword("test");
+        pool.setConnectionTimeout(500);
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.availability.BookedInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.datasource.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_USER_ID = 1000L;
+
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemService itemService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The replica is a separate database without replication, it gets the schema and a user of its own
+     * before the context starts.
+     */
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "test", "test");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            statement.executeUpdate("insert into users (id, name, email) values (" + REPLICA_USER_ID +
+                    ", 'Replica', 'replica@mail.ru')");
+        }
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldReadFromReplica() {
+        assertEquals(1, replicaRoutingDataSource.getHealthyReplicas().size());
+        assertTrue(itemRequestService.getRequestsByOwner(REPLICA_USER_ID).isEmpty());
+    }
+
+    @Test
+    void write_shouldGoToPrimary() {
+        UserDto user = userService.createUser(new UserDto(null, "Galina", "galina@mail.ru"));
+
+        assertTrue(userRepository.findAll().stream().noneMatch(u -> u.getId().equals(user.getId())),
+                "The replica does not have the new user.");
+        assertThrows(ObjectNotFoundException.class, () -> itemRequestService.getRequestsByOwner(user.getId()));
+    }
+
+    @Test
+    void itemAvailabilityLoad_shouldReadFromPrimaryInReadOnlyTransaction() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking booking = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, owner,
+                BookingStatus.APPROVED));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<BookedInterval> booked = readOnly.execute(status ->
+                itemAvailabilityIndex.findBooked(item.getId(), now, now.plusDays(3)));
+
+        assertEquals(List.of(booking.getId()), booked.stream()
+                .map(BookedInterval::getBookingId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void getItemAvailability_shouldFindItemMissingOnReplica() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        entityManagerFactory.getCache().evictAll();
+
+        assertTrue(itemService.getItemAvailability(item.getId(), now, now.plusDays(1)).getBusy().isEmpty());
+    }
+}
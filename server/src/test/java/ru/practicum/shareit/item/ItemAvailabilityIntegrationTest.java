@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ObjectValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemAvailabilityIntegrationTest {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final LocalDateTime to = from.plusDays(10);
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void createData() {
+        owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        booker = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+        item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        bookingRepository.save(new Booking(null, from.minusDays(1), from.plusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, from.plusDays(3), from.plusDays(4), item, booker,
+                BookingStatus.WAITING));
+        bookingRepository.save(new Booking(null, from.plusDays(5), from.plusDays(6), item, booker,
+                BookingStatus.REJECTED));
+    }
+
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getItemAvailability_shouldSplitPeriodIntoFreeAndBusyIntervals() {
+        ItemAvailabilityDto availability = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(interval(from, from.plusDays(1)), interval(from.plusDays(3), from.plusDays(4))),
+                availability.getBusy());
+        assertEquals(List.of(interval(from.plusDays(1), from.plusDays(3)), interval(from.plusDays(4), to)),
+                availability.getFree());
+    }
+
+    @Test
+    void getItemAvailability_shouldFollowBookingChangesWithoutQueries() {
+        itemService.getItemAvailability(item.getId(), from, to);
+        BookingDto booking = bookingService.createBooking(new BookingDto(null, from.plusDays(7), from.plusDays(8),
+                null, item.getId(), null, null), booker.getId());
+
+        sqlStatementCounter.start();
+        ItemAvailabilityDto availability = itemService.getItemAvailability(item.getId(), from, to);
+        assertEquals(0, sqlStatementCounter.stop().getStatements());
+        assertEquals(3, availability.getBusy().size());
+        assertEquals(interval(from.plusDays(7), from.plusDays(8)), availability.getBusy().get(2));
+
+        bookingService.updateBooking(booking.getId(), owner.getId(), false);
+
+        assertEquals(2, itemService.getItemAvailability(item.getId(), from, to).getBusy().size());
+    }
+
+    @Test
+    void getItemAvailability_shouldRejectEmptyPeriodAndUnknownItem() {
+        assertThrows(ObjectValidationException.class, () -> itemService.getItemAvailability(item.getId(), to, from));
+        assertThrows(ObjectNotFoundException.class, () -> itemService.getItemAvailability(-1L, from, to));
+    }
+
+    private static ItemAvailabilityDto.Interval interval(LocalDateTime start, LocalDateTime end) {
+        return new ItemAvailabilityDto.Interval(start, end);
+    }
+}
@@ -6,8 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -43,9 +43,9 @@ public class ItemRepositoryJpaTest {
 
     @Test
     void searchByName_shouldReturnItem() {
-        Page<Item> resultItems = itemRepository.searchByQuery("book", page);
+        Slice<Item> resultItems = itemRepository.searchByQuery("book", page);
 
-        assertEquals(resultItems.getTotalElements(), 1);
+        assertEquals(resultItems.getNumberOfElements(), 1);
         Item resultItem = resultItems.getContent().get(0);
         assertEquals(resultItem.getName(), item.getName());
         assertEquals(resultItem.getDescription(), item.getDescription());
@@ -55,9 +55,9 @@ public class ItemRepositoryJpaTest {
 
     @Test
     void searchByDescription_shouldReturnItem() {
-        Page<Item> resultItems = itemRepository.searchByQuery("very", page);
+        Slice<Item> resultItems = itemRepository.searchByQuery("very", page);
 
-        assertEquals(resultItems.getTotalElements(), 1);
+        assertEquals(resultItems.getNumberOfElements(), 1);
         Item resultItem = resultItems.getContent().get(0);
         assertEquals(resultItem.getName(), item.getName());
         assertEquals(resultItem.getDescription(), item.getDescription());
@@ -67,9 +67,9 @@ public class ItemRepositoryJpaTest {
 
     @Test
     void searchByQuery_shouldNotReturnItem() {
-        Page<Item> resultItems = itemRepository.searchByQuery("text", page);
+        Slice<Item> resultItems = itemRepository.searchByQuery("text", page);
 
-        assertEquals(resultItems.getTotalElements(), 0);
+        assertEquals(resultItems.getNumberOfElements(), 0);
     }
 
     @Test
@@ -81,7 +81,7 @@ public class ItemRepositoryJpaTest {
 
     @Test
     void findByOwnerIdOrderByIdAscWithPage() {
-        Page<Item> resultItems = itemRepository.findByOwnerIdOrderByIdAsc(galina.getId(), page);
+        Slice<Item> resultItems = itemRepository.findByOwnerIdOrderByIdAsc(galina.getId(), page);
 
         assertEquals(1, resultItems.getNumberOfElements());
     }
@@ -25,7 +25,7 @@ public class ItemRepositoryTest {
     @Test
     void getById_shouldThrowExceptionIfWrongId() {
         ItemService itemService = new ItemServiceImpl(itemRepository, null,
-                null, null);
+                null, null, null, null);
         when(itemRepository.findById(any(Long.class))).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class,
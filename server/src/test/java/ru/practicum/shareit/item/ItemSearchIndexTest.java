@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.datasource.PrimaryReader;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void openIndex() throws IOException {
+        searchIndex = new ItemSearchIndex(null, null, "lucene");
+        searchIndex.open();
+        searchIndex.index(item(1L, "Drill", "Cordless drill with battery", true));
+        searchIndex.index(item(2L, "Screwdriver", "Works like a drill for small screws", true));
+        searchIndex.index(item(3L, "Hammer drill", "Heavy duty", false));
+        searchIndex.index(item(4L, "Notebook", "Paper notebook", true));
+    }
+
+    @AfterEach
+    void closeIndex() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndSkipUnavailableItems() {
+        List<Long> ids = searchIndex.search("DRILL", Pageable.unpaged());
+
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void search_shouldMatchPartOfWordLikeLikeQuery() {
+        assertEquals(List.of(4L), searchIndex.search("tebo", Pageable.unpaged()));
+    }
+
+    @Test
+    void search_shouldMatchPartOfWordLongerThanLongestGram() {
+        searchIndex.index(item(5L, "Multifunctional tool", "Pocket knife", true));
+
+        assertEquals(List.of(5L), searchIndex.search("ltifunction", Pageable.unpaged()));
+        assertTrue(searchIndex.search("ltifunctiom", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void isReady_shouldBeFalseUntilIndexIsBuilt() throws IOException {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        PrimaryReader primaryReader = mock(PrimaryReader.class);
+        when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, primaryReader, "lucene");
+        index.open();
+        try {
+            assertFalse(index.isReady());
+
+            index.rebuild();
+
+            assertTrue(index.isReady());
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void rebuild_shouldNotOverwriteItemIndexedAfterItsPageWasRead() throws IOException {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        PrimaryReader primaryReader = mock(PrimaryReader.class);
+        when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, primaryReader, "lucene");
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            if (page.getPageNumber() == 0) {
+                return new PageImpl<>(List.of(item(1L, "Drill", "Drill", true)), page, page.getPageSize() + 1);
+            }
+            Item read = item(2L, "Saw", "Saw", true);
+            // The item is renamed and committed after the page was read, before the rebuild writes it.
+            index.index(item(2L, "Hammer", "Hammer", true));
+            return new PageImpl<>(List.of(read), page, page.getPageSize() + 1);
+        });
+        index.open();
+        try {
+            index.rebuild();
+
+            assertEquals(List.of(2L), index.search("hammer", Pageable.unpaged()));
+            assertTrue(index.search("saw", Pageable.unpaged()).isEmpty());
+            assertEquals(List.of(1L), index.search("drill", Pageable.unpaged()));
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void search_shouldMatchWholeTextLikeLikeQuery() {
+        assertEquals(List.of(1L), searchIndex.search("drill with", Pageable.unpaged()));
+        assertTrue(searchIndex.search("drill battery", Pageable.unpaged()).isEmpty());
+        assertTrue(searchIndex.search("notebook paper", Pageable.unpaged()).isEmpty(),
+                "Words split between the name and the description do not match.");
+    }
+
+    @Test
+    void search_shouldNotMatchTextWhoseTrigramsAreApart() {
+        searchIndex.index(item(5L, "Drill bit and bit drill", "Set", true));
+
+        assertEquals(List.of(5L), searchIndex.search("bit drill", Pageable.unpaged()));
+        assertTrue(searchIndex.search("drill bit drill", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchPunctuationLikeLikeQuery() {
+        searchIndex.index(item(5L, "Drill, cordless", "Set", true));
+
+        assertEquals(List.of(5L), searchIndex.search("l, c", Pageable.unpaged()));
+        assertTrue(searchIndex.search("l c", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void search_shouldReturnStablePages() {
+        searchIndex.index(item(5L, "Book", "Book", true));
+        searchIndex.index(item(6L, "Book", "Book", true));
+        searchIndex.index(item(7L, "Book", "Book", true));
+
+        assertEquals(List.of(5L, 6L), searchIndex.search("book", PageRequest.of(0, 2)));
+        assertEquals(List.of(7L, 4L), searchIndex.search("book", PageRequest.of(1, 2)));
+    }
+
+    @Test
+    void index_shouldReplaceItemWhenAvailabilityChanges() {
+        searchIndex.index(item(3L, "Hammer drill", "Heavy duty", true));
+
+        assertTrue(searchIndex.search("hammer", Pageable.unpaged()).contains(3L));
+
+        searchIndex.index(item(3L, "Hammer drill", "Heavy duty", false));
+
+        assertFalse(searchIndex.search("hammer", Pageable.unpaged()).contains(3L));
+    }
+
+    @Test
+    void canSearch_shouldLeaveTextShorterThanTrigramToDatabase() throws IOException {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        PrimaryReader primaryReader = mock(PrimaryReader.class);
+        when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, primaryReader, "lucene");
+        index.open();
+        try {
+            index.rebuild();
+
+            assertFalse(index.canSearch("?!"));
+            assertTrue(index.canSearch("dri"));
+            assertTrue(searchIndex.search("?!", Pageable.unpaged()).isEmpty());
+        } finally {
+            index.close();
+        }
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
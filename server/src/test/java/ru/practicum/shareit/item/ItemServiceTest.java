@@ -5,9 +5,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
@@ -24,7 +24,9 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.mapper.ItemMapperWithBooking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -39,10 +41,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.ArgumentMatchers.any;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,6 +61,10 @@ public class ItemServiceTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
     @InjectMocks
     private ItemServiceImpl itemService;
     @InjectMocks
@@ -325,10 +333,10 @@ public class ItemServiceTest {
     @Test
     void getItemById_shouldReturnItem() {
         when(itemRepository.findById(notebook.getId())).thenReturn(Optional.of(notebook));
-        when(bookingRepository.getFirstByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(any(Long.class),
-                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(lastBooking);
-        when(bookingRepository.getFirstByItemIdAndStatusNotAndStartAfterOrderByStart(any(Long.class),
-                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(nextBooking);
+        when(bookingRepository.findLastBookingsByItemId(any(Long.class), any(BookingStatus.class),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemId(any(Long.class), any(BookingStatus.class),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(nextBooking));
 
         ItemDtoWithBooking savedItem = itemService.getItemById(galina.getId(), notebook.getId());
 
@@ -361,7 +369,7 @@ public class ItemServiceTest {
                         nextBookingSecondItem,
                         items.get(1)));
 
-        PageImpl pageRequests = new PageImpl(items);
+        SliceImpl pageRequests = new SliceImpl(items);
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
         when(itemRepository.findByOwnerIdOrderByIdAsc(any(Long.class), any(Pageable.class))).thenReturn(pageRequests);
@@ -375,6 +383,41 @@ public class ItemServiceTest {
         verify(userRepository, times(1)).existsById(galina.getId());
     }
 
+    @Transactional
+    @Test
+    void getItemsByUser_shouldAttachBatchLoadedBookingsAndCommentsToEachItem() {
+        Booking lastBookingSecondItem =
+                new Booking(2L, DATE.minusDays(3), DATE.minusDays(2), items.get(1), anna, BookingStatus.APPROVED);
+        Booking nextBookingFirstItem =
+                new Booking(3L, DATE.plusDays(3), DATE.plusDays(4), items.get(0), anna, BookingStatus.APPROVED);
+        Comment comment = new Comment(1L, "Good notebook", items.get(0), anna, DATE);
+
+        when(userRepository.existsById(any(Long.class))).thenReturn(true);
+        when(itemRepository.findByOwnerIdOrderByIdAsc(any(Long.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(items));
+        when(commentRepository.getByItem_IdInOrderByCreatedDesc(List.of(1L, 2L))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBookingSecondItem));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBookingFirstItem));
+
+        Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
+
+        List<ItemDtoWithBooking> result = itemService.getItemsByUser(galina.getId(), page);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getComments().size());
+        assertNull(result.get(0).getLastBooking());
+        assertEquals(nextBookingFirstItem.getId(), result.get(0).getNextBooking().getId());
+        assertEquals(0, result.get(1).getComments().size());
+        assertEquals(lastBookingSecondItem.getId(), result.get(1).getLastBooking().getId());
+        assertNull(result.get(1).getNextBooking());
+
+        verify(commentRepository, times(1)).getByItem_IdInOrderByCreatedDesc(any());
+        verify(bookingRepository, times(1)).findLastBookingsByItemIds(any(), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextBookingsByItemIds(any(), any(LocalDateTime.class));
+    }
+
     @Transactional
     @Test
     void getItemsByUser_shouldReturnByUserIdIfLimitIsNull() {
@@ -411,6 +454,15 @@ public class ItemServiceTest {
         verify(userRepository, times(1)).existsById(galina.getId());
     }
 
+    @Test
+    void getItemsByUserAfter_shouldThrowExceptionIfUserIdIsIncorrect() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> itemService.getItemsByUserAfter(999L, null, SIZE));
+        verify(itemRepository, never()).findByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                any(Long.class), any(Long.class), any(Pageable.class));
+    }
+
     @Transactional
     @Test
     void searchItemByQuery_shouldReturnItemIfLimitIsNull() {
@@ -427,6 +479,31 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).searchByQuery(any(String.class));
     }
 
+    @Transactional
+    @Test
+    void searchItemByQuery_shouldUseDatabaseUntilSearchIndexIsReady() {
+        when(itemSearchIndex.canSearch(SEARCH_TEXT)).thenReturn(false);
+        when(itemRepository.searchByQuery(eq(SEARCH_TEXT))).thenReturn(List.of(notebook));
+
+        List<ItemDto> savedItems = itemService.searchItemByQuery(galina.getId(), SEARCH_TEXT, Pageable.unpaged());
+
+        assertEquals(List.of(notebookDto), savedItems);
+        verify(itemSearchIndex, never()).search(any(), any());
+    }
+
+    @Transactional
+    @Test
+    void searchItemByQuery_shouldUseSearchIndexOnceReady() {
+        when(itemSearchIndex.canSearch(SEARCH_TEXT)).thenReturn(true);
+        when(itemSearchIndex.search(eq(SEARCH_TEXT), any(Pageable.class))).thenReturn(List.of(notebook.getId()));
+        when(itemRepository.findAllById(List.of(notebook.getId()))).thenReturn(List.of(notebook));
+
+        List<ItemDto> savedItems = itemService.searchItemByQuery(galina.getId(), SEARCH_TEXT, Pageable.unpaged());
+
+        assertEquals(List.of(notebookDto), savedItems);
+        verify(itemRepository, never()).searchByQuery(any(String.class));
+    }
+
     @Transactional
     @Test
     void searchItemByQuery_shouldReturnItem() {
@@ -447,7 +524,7 @@ public class ItemServiceTest {
                         null)
         );
 
-        Page<Item> pages = new PageImpl<>(items);
+        Slice<Item> pages = new SliceImpl<>(items);
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
         when(itemRepository.searchByQuery(eq(SEARCH_TEXT), any(Pageable.class))).thenReturn(pages);
@@ -511,6 +588,7 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findById(any(Long.class))).thenReturn(Optional.of(notebook));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.of(notebook));
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(galina));
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(anna));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
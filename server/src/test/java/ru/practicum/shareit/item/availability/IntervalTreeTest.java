@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void findOverlapping_shouldReturnIntervalsCrossingWindowOrderedByStart() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(interval(3L, 10, 12));
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(2L, 4, 30));
+        tree.put(interval(4L, 14, 16));
+
+        List<Long> ids = ids(tree.findOverlapping(BASE.plusHours(11), BASE.plusHours(14)));
+
+        assertEquals(List.of(2L, 3L), ids);
+    }
+
+    @Test
+    void findOverlapping_shouldTreatIntervalsAsHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(2L, 4, 6));
+
+        assertTrue(tree.findOverlapping(BASE.plusHours(2), BASE.plusHours(4)).isEmpty());
+    }
+
+    @Test
+    void put_shouldReplaceIntervalOfSameBooking() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(1L, 10, 12));
+
+        assertEquals(1, tree.size());
+        assertTrue(tree.findOverlapping(BASE, BASE.plusHours(3)).isEmpty());
+        assertEquals(List.of(1L), ids(tree.findOverlapping(BASE.plusHours(11), BASE.plusHours(13))));
+    }
+
+    @Test
+    void remove_shouldDropInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(2L, 1, 3));
+
+        tree.remove(1L);
+        tree.remove(5L);
+
+        assertEquals(List.of(2L), ids(tree.findOverlapping(BASE, BASE.plusHours(10))));
+    }
+
+    @Test
+    void findOverlapping_shouldMatchLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<BookedInterval> all = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            int start = random.nextInt(10_000);
+            BookedInterval interval = interval(id, start, start + 1 + random.nextInt(200));
+            tree.put(interval);
+            all.add(interval);
+        }
+        for (long id = 1; id <= 2000; id += 3) {
+            tree.remove(id);
+        }
+        all.removeIf(interval -> interval.getBookingId() % 3 == 1);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = BASE.plusHours(random.nextInt(10_000));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(500));
+            List<Long> expected = all.stream()
+                    .filter(interval -> interval.getStart().isBefore(to) && interval.getEnd().isAfter(from))
+                    .sorted(Comparator.comparing(BookedInterval::getStart)
+                            .thenComparing(BookedInterval::getBookingId))
+                    .map(BookedInterval::getBookingId)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ids(tree.findOverlapping(from, to)));
+        }
+    }
+
+    private static BookedInterval interval(Long id, int startHour, int endHour) {
+        return new BookedInterval(id, BASE.plusHours(startHour), BASE.plusHours(endHour));
+    }
+
+    private static List<Long> ids(List<BookedInterval> intervals) {
+        return intervals.stream().map(BookedInterval::getBookingId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReader;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemAvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+    private ItemAvailabilityIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        bookingRepository = mock(BookingRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        PrimaryReader primaryReader = mock(PrimaryReader.class);
+        when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        index = new ItemAvailabilityIndex(bookingRepository, itemRepository, primaryReader, 100,
+                Duration.ofMinutes(30), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void findBooked_shouldNotKeepAnythingForMissingItem() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> index.findBooked(1L, BASE, BASE.plusDays(1)));
+        assertThrows(ObjectNotFoundException.class, () -> index.findBooked(1L, BASE, BASE.plusDays(1)));
+
+        verify(itemRepository, times(2)).existsById(1L);
+        verify(bookingRepository, never()).findBookedIntervalsByItemId(any(), any());
+    }
+
+    @Test
+    void findBooked_shouldLoadOnceAndThenFollowIndexedBookings() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookedIntervalsByItemId(1L, BookingStatus.REJECTED))
+                .thenReturn(List.of(new BookedInterval(10L, BASE, BASE.plusHours(2))));
+
+        assertEquals(1, index.findBooked(1L, BASE, BASE.plusDays(1)).size());
+        index.index(booking(11L, 1L, BookingStatus.APPROVED));
+        index.index(booking(10L, 1L, BookingStatus.REJECTED));
+
+        List<BookedInterval> booked = index.findBooked(1L, BASE, BASE.plusDays(1));
+
+        assertEquals(1, booked.size());
+        assertEquals(11L, booked.get(0).getBookingId());
+        verify(itemRepository, times(1)).existsById(1L);
+        verify(bookingRepository, times(1)).findBookedIntervalsByItemId(1L, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void findBooked_shouldReloadOnceExpiredEvenIfQueriedMeanwhile() {
+        AtomicLong nanos = new AtomicLong();
+        PrimaryReader primaryReader = mock(PrimaryReader.class);
+        when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ItemAvailabilityIndex expiringIndex = new ItemAvailabilityIndex(bookingRepository, itemRepository,
+                primaryReader, 100, Duration.ofMinutes(30), new SimpleMeterRegistry(), nanos::get);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookedIntervalsByItemId(1L, BookingStatus.REJECTED)).thenReturn(List.of());
+
+        for (int minute = 0; minute < 30; minute += 10) {
+            nanos.set(Duration.ofMinutes(minute).toNanos());
+            expiringIndex.findBooked(1L, BASE, BASE.plusDays(1));
+        }
+        verify(bookingRepository, times(1)).findBookedIntervalsByItemId(1L, BookingStatus.REJECTED);
+
+        nanos.set(Duration.ofMinutes(31).toNanos());
+        expiringIndex.findBooked(1L, BASE, BASE.plusDays(1));
+
+        verify(bookingRepository, times(2)).findBookedIntervalsByItemId(1L, BookingStatus.REJECTED);
+    }
+
+    private static Booking booking(Long id, Long itemId, BookingStatus status) {
+        Item item = Item.builder().id(itemId).build();
+        return new Booking(id, BASE.plusHours(4), BASE.plusHours(6), item, null, status);
+    }
+}
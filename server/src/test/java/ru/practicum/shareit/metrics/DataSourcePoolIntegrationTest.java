@@ -0,0 +1,45 @@
+package ru.practicum.shareit.metrics;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DataSourcePoolIntegrationTest {
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void pool_shouldUseProfileSettings() {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+
+        assertNotNull(hikari, "The proxy must still unwrap to the Hikari pool.");
+        assertEquals("shareit", hikari.getPoolName());
+        assertEquals(5, hikari.getMaximumPoolSize());
+        assertEquals(5000, hikari.getLeakDetectionThreshold());
+        assertTrue(hikari.getDataSourceProperties().isEmpty(), "pgjdbc settings belong to the postgres profile.");
+    }
+
+    @Test
+    void pool_shouldPublishMetrics() {
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        assertEquals(5, meterRegistry.get("hikaricp.connections.max").tag("pool", "shareit").gauge().value());
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "shareit").timer().count() > 0);
+    }
+}
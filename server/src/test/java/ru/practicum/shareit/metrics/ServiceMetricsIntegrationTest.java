@@ -0,0 +1,91 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServiceMetricsIntegrationTest {
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final MockMvc mvc;
+
+    private UserDto user;
+
+    @BeforeEach
+    void createUser() {
+        user = userService.createUser(new UserDto(null, "Galina", "galina@mail.ru"));
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void serviceMethod_shouldBeTimedWithStateAndPaging() {
+        long byBooker = count("getAllBookingByUserId", "WAITING", "offset", "ObjectNotFoundException");
+        long byOwner = count("getAllBookingByOwnerIdAfter", "INVALID", "cursor", "ObjectNotFoundException");
+        long getUser = count("getUser", "none", "none", "none");
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getAllBookingByUserId(user.getId(), "WAITING", PageRequest.of(0, 10)));
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getAllBookingByOwnerIdAfter(user.getId(), "SOMETHING", null, 10));
+        userService.getUser(user.getId());
+
+        assertEquals(byBooker + 1, count("getAllBookingByUserId", "WAITING", "offset", "ObjectNotFoundException"));
+        assertEquals(byOwner + 1, count("getAllBookingByOwnerIdAfter", "INVALID", "cursor", "ObjectNotFoundException"));
+        assertEquals(getUser + 1, count("getUser", "none", "none", "none"));
+    }
+
+    @SneakyThrows
+    @Test
+    void httpRequest_shouldRecordSqlStatementCount() {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementMetricsFilter.SUMMARY)
+                .tag("method", "GET")
+                .tag("uri", "/users/{userId}")
+                .tag("status", "200")
+                .summary();
+        assertTrue(statements.count() > 0);
+        assertTrue(statements.max() <= 1, "A user lookup needs at most one statement.");
+    }
+
+    private long count(String method, String state, String paging, String exception) {
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tag("method", method)
+                .tag("state", state)
+                .tag("paging", paging)
+                .tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
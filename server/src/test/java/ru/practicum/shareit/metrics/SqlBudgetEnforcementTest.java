@@ -0,0 +1,65 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a real port, so the response is written by the servlet container: a handler over its
+ * {@link SqlBudget} must get an error response instead of its body.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(SqlBudgetEnforcementTest.BudgetedController.class)
+public class SqlBudgetEnforcementTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void handlerWithinBudget_shouldReturnBody() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/sql-budget/{statements}", String.class, 2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().matches("\\[\\d+,\\d+]"), response.getBody());
+    }
+
+    @Test
+    void handlerOverBudget_shouldFailBeforeBodyIsWritten() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/sql-budget/{statements}", String.class, 3);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertTrue(response.getBody().contains("ran 3 SQL statements, its budget is 2"), response.getBody());
+    }
+
+    @RestController
+    static class BudgetedController {
+        private final UserRepository userRepository;
+
+        BudgetedController(UserRepository userRepository) {
+            this.userRepository = userRepository;
+        }
+
+        @GetMapping("/sql-budget/{statements}")
+        @SqlBudget(2)
+        public List<Long> runStatements(@PathVariable int statements) {
+            List<Long> counts = new ArrayList<>();
+            for (int i = 0; i < statements; i++) {
+                counts.add(userRepository.count());
+            }
+            return counts;
+        }
+    }
+}
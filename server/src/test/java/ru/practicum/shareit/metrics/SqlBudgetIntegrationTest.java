@@ -0,0 +1,116 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.comments.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SqlBudgetIntegrationTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void createData() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        booker = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Need a drill")
+                .requester(booker)
+                .created(now.minusDays(3))
+                .build());
+        for (int i = 0; i < 3; i++) {
+            item = itemRepository.save(Item.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill")
+                    .available(true)
+                    .owner(owner)
+                    .requestId(request.getId())
+                    .build());
+            booking = bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                    BookingStatus.WAITING));
+            for (int j = 0; j < 2; j++) {
+                commentRepository.save(Comment.builder()
+                        .text("Great drill")
+                        .item(item)
+                        .user(booker)
+                        .created(now.minusHours(j + 1))
+                        .build());
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteData() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @SneakyThrows
+    @Test
+    void listEndpoints_shouldStayWithinSqlBudget() {
+        mvc.perform(get("/users/{userId}", owner.getId())).andExpect(status().isOk());
+        mvc.perform(get("/users")).andExpect(status().isOk());
+        mvc.perform(get("/items/{itemId}", item.getId()).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items").header(USER_HEADER, owner.getId())).andExpect(status().isOk());
+        mvc.perform(get("/items/search?text=drill").header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{itemId}/availability?from={from}&to={to}", item.getId(),
+                        LocalDateTime.now(), LocalDateTime.now().plusDays(7)).header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{bookingId}", booking.getId()).header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk());
+        for (String state : new String[]{"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"}) {
+            mvc.perform(get("/bookings?state={state}", state).header(USER_HEADER, booker.getId()))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/bookings/owner?state={state}", state).header(USER_HEADER, owner.getId()))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/requests").header(USER_HEADER, booker.getId())).andExpect(status().isOk());
+        mvc.perform(get("/requests/all").header(USER_HEADER, owner.getId())).andExpect(status().isOk());
+        mvc.perform(get("/requests/{requestId}", request.getId()).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.PageMaker;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -14,14 +19,17 @@ import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @Rollback
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class ItemRequestIntegrationTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
@@ -29,6 +37,10 @@ public class ItemRequestIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRequestServiceImpl itemRequestService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     private static final LocalDateTime DATE =
             LocalDateTime.of(2023, 12, 10, 12, 30, 0);
@@ -68,4 +80,48 @@ public class ItemRequestIntegrationTest {
                 resultItemRequest.getDescription(), "The request description must match.");
         assertNotNull(resultItemRequest.getCreated(), "Creation date must not be null.");
     }
+
+    @Transactional
+    @Test
+    void getAllRequests_shouldAttachItemsByRequestIdWithFixedNumberOfQueries() {
+        User galina = userRepository.save(new User(null, "Galina", "galina@mail.ru"));
+        User anna = userRepository.save(new User(null, "Anna", "anna@mail.ru"));
+
+        List<ItemRequest> requests = List.of(
+                itemRequestRepository.save(new ItemRequest(null, "Request 1", anna, DATE)),
+                itemRequestRepository.save(new ItemRequest(null, "Request 2", anna, DATE.plusDays(1))),
+                itemRequestRepository.save(new ItemRequest(null, "Request 3", anna, DATE.plusDays(2))));
+        for (ItemRequest request : requests.subList(0, 2)) {
+            for (int i = 0; i < 2; i++) {
+                Item item = new Item();
+                item.setName("Answer " + i + " to " + request.getDescription());
+                item.setDescription("description");
+                item.setAvailable(true);
+                item.setOwner(galina);
+                item.setRequestId(request.getId());
+                itemRepository.save(item);
+            }
+        }
+        itemRepository.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> result =
+                itemRequestService.getAllRequests(galina.getId(), PageMaker.makePageableWithSort(0, 10));
+
+        assertEquals(3, result.size());
+        for (ItemRequestDto requestDto : result) {
+            List<Long> itemRequestIds = requestDto.getItems().stream()
+                    .map(item -> item.getRequestId())
+                    .distinct()
+                    .collect(Collectors.toList());
+            assertEquals(requestDto.getId().equals(requests.get(2).getId()) ? List.of() : List.of(requestDto.getId()),
+                    itemRequestIds);
+            assertEquals("Anna", requestDto.getRequester().getName());
+        }
+        assertEquals(3, statistics.getPrepareStatementCount(),
+                "User check, one page query and one items query are expected.");
+    }
 }
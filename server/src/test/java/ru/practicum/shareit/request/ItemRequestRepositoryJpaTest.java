@@ -5,8 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -43,7 +43,7 @@ public class ItemRequestRepositoryJpaTest {
 
     @Test
     void findByRequesterIdNot_shouldNotFound() {
-        Page<ItemRequest> resultRequests = itemRequestRepository.findByRequesterIdNot(galina.getId(), page);
+        Slice<ItemRequest> resultRequests = itemRequestRepository.findByRequesterIdNot(galina.getId(), page);
         assertEquals(0, resultRequests.getNumberOfElements());
     }
 
@@ -61,7 +61,7 @@ public class ItemRequestRepositoryJpaTest {
         em.persist(itemRequest);
         em.flush();
 
-        Page<ItemRequest> resultRequests = itemRequestRepository.findByRequesterIdNot(anna.getId(), page);
+        Slice<ItemRequest> resultRequests = itemRequestRepository.findByRequesterIdNot(anna.getId(), page);
         assertEquals(1, resultRequests.getNumberOfElements());
     }
 }
\ No newline at end of file
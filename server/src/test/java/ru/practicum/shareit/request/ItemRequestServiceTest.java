@@ -5,8 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.PageMaker;
@@ -32,6 +32,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @ExtendWith(MockitoExtension.class)
@@ -95,7 +96,7 @@ public class ItemRequestServiceTest {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterId(galina.getId(),
                 Sort.by(DESC, "created"))).thenReturn(requests);
-        when(itemRepository.findByRequestId(galina.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(Collections.emptyList());
 
         List<ItemRequestDto> savedRequestDtos = itemRequestService.getRequestsByOwner(galina.getId());
 
@@ -110,11 +111,11 @@ public class ItemRequestServiceTest {
     @Transactional
     @Test
     void getAllRequests_shouldReturnExistingRequests() {
-        PageImpl pageRequests = new PageImpl(requests);
+        SliceImpl pageRequests = new SliceImpl(requests);
 
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
         when(itemRequestRepository.findByRequesterIdNot(any(Long.class), any(Pageable.class))).thenReturn(pageRequests);
-        when(itemRepository.findByRequestId(galina.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(Collections.emptyList());
 
         Pageable page = PageMaker.makePageableWithSort(FROM, SIZE);
 
@@ -139,13 +140,23 @@ public class ItemRequestServiceTest {
                 () -> itemRequestService.getAllRequests(100L, page));
     }
 
+    @Test
+    void getAllRequestsAfter_shouldThrowExceptionIfUserIdIsIncorrect() {
+        when(userRepository.existsById(any(Long.class))).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> itemRequestService.getAllRequestsAfter(100L, null, SIZE));
+        verify(itemRequestRepository, never()).findByRequesterIdNotAndIdGreaterThanOrderByIdAsc(
+                any(Long.class), any(Long.class), any(Pageable.class));
+    }
+
     @Transactional
     @Test
     void getAllRequests_shouldReturnAllRequestsIfSizeIsNull() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterId(galina.getId(),
                 Sort.by(DESC, "created"))).thenReturn(requests);
-        when(itemRepository.findByRequestId(galina.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(Collections.emptyList());
 
         Pageable page = PageMaker.makePageableWithSort(FROM, null);
 
@@ -163,7 +174,7 @@ public class ItemRequestServiceTest {
     @Test
     void getRequestById_shouldReturnRequest() {
         when(userRepository.existsById(any(Long.class))).thenReturn(true);
-        when(itemRepository.findByRequestId(galina.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findByRequestId(request.getId())).thenReturn(Collections.emptyList());
         when(itemRequestRepository.findById(any(Long.class))).thenReturn(Optional.of(request));
 
         ItemRequestDto savedRequestDto = itemRequestService.getRequestById(1L, 1L);